@@ -0,0 +1,73 @@
+package com.swsisolutions.compundinterest.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.swsisolutions.compundinterest.InterestConfig;
+import com.swsisolutions.compundinterest.InterestService;
+
+// One quote at a time: Math.pow per call (the formula before the table) against InterestService's growth-factor
+// lookup, over a spread of terms up to maxYears.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(GrowthFactorBenchmark.QUOTES)
+public class GrowthFactorBenchmark {
+
+    static final int QUOTES = 1024;
+
+    @Param({"30", "400"})
+    int maxYears;
+
+    private InterestConfig config;
+    private InterestService service;
+    private double[] principals;
+    private int[] years;
+
+    @Setup
+    public void setUp() {
+        config = new InterestConfig();
+        config.setRate(8.0);
+        service = new InterestService(config);
+        SplittableRandom random = new SplittableRandom(42);
+        principals = new double[QUOTES];
+        years = new int[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            principals[i] = 100 + random.nextInt(1_000_000) / 100.0;
+            years[i] = 1 + random.nextInt(maxYears);
+        }
+    }
+
+    @Benchmark
+    public void pow(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            double rate = config.getRate();
+            double amount = principals[i] * Math.pow((1 + rate / 100), years[i]);
+            blackhole.consume(amount - principals[i]);
+        }
+    }
+
+    @Benchmark
+    public void table(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            blackhole.consume(service.calculateCompoundInterest(principals[i], years[i]));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.swsisolutions.compundinterest.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.swsisolutions.compundinterest.InterestConfig;
+import com.swsisolutions.compundinterest.InterestController;
+import com.swsisolutions.compundinterest.InterestService;
+
+// Quotes per second for 100k (principal, years) pairs: one controller call per quote (the GET path minus HTTP),
+// one service call per quote, and the batch call, sequential and split across the common pool.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(InterestBatchBenchmark.QUOTES)
+public class InterestBatchBenchmark {
+
+    static final int QUOTES = 100_000;
+    private static final int CHUNK = 8192;
+
+    private InterestService service;
+    private InterestController controller;
+    private double[] principals;
+    private int[] years;
+    private double[] interest;
+    // the same quotes in batches small enough to stay on the calling thread
+    private double[][] principalChunks;
+    private int[][] yearChunks;
+
+    @Setup
+    public void setUp() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(8.0);
+        service = new InterestService(config);
+        controller = new InterestController(service);
+        SplittableRandom random = new SplittableRandom(42);
+        principals = new double[QUOTES];
+        years = new int[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            principals[i] = 100 + random.nextInt(1_000_000) / 100.0;
+            years[i] = 1 + random.nextInt(40);
+        }
+        interest = new double[QUOTES];
+        int chunks = (QUOTES + CHUNK - 1) / CHUNK;
+        principalChunks = new double[chunks][];
+        yearChunks = new int[chunks][];
+        for (int c = 0; c < chunks; c++) {
+            int from = c * CHUNK;
+            principalChunks[c] = Arrays.copyOfRange(principals, from, Math.min(QUOTES, from + CHUNK));
+            yearChunks[c] = Arrays.copyOfRange(years, from, Math.min(QUOTES, from + CHUNK));
+        }
+    }
+
+    @Benchmark
+    public void perRequest(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            blackhole.consume(controller.calculate(principals[i], years[i], null));
+        }
+    }
+
+    @Benchmark
+    public void perQuote(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            blackhole.consume(service.calculateCompoundInterest(principals[i], years[i]));
+        }
+    }
+
+    @Benchmark
+    public double[] batchSequential() {
+        for (int c = 0; c < principalChunks.length; c++) {
+            service.calculateCompoundInterest(principalChunks[c], yearChunks[c], interest, principalChunks[c].length);
+        }
+        return interest;
+    }
+
+    @Benchmark
+    public double[] batchParallel() {
+        service.calculateCompoundInterest(principals, years, interest, QUOTES);
+        return interest;
+    }
+}
@@ -0,0 +1,60 @@
+package com.swsisolutions.compundinterest.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.swsisolutions.compundinterest.InterestConfig;
+import com.swsisolutions.compundinterest.InterestController;
+import com.swsisolutions.compundinterest.InterestService;
+
+// Rendering one /calculate-interest answer: the String.format text it used to build, the same text from the
+// fixed-point formatter, and the JSON mode. Run with -Pjmh.profilers=gc to compare bytes allocated per answer.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterestFormattingBenchmark {
+
+    private InterestService service;
+    private InterestController controller;
+    private double principal = 12_345.67;
+    private int years = 17;
+
+    @Setup
+    public void setUp() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(8.5);
+        service = new InterestService(config);
+        controller = new InterestController(service);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        double interest = service.calculateCompoundInterest(principal, years);
+        double rate = service.getInterestConfig().getRate();
+        return String.format("Using interest rate of %.2f%%: Compound interest for Principal $%.2f over %d years is $%.2f",
+                rate, principal, years, interest);
+    }
+
+    @Benchmark
+    public String fixedPointText() {
+        return controller.calculate(principal, years, null);
+    }
+
+    @Benchmark
+    public byte[] fixedPointJson() {
+        return controller.calculateJson(principal, years, null);
+    }
+}
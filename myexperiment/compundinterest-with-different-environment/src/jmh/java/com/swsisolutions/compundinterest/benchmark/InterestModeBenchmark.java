@@ -0,0 +1,89 @@
+package com.swsisolutions.compundinterest.benchmark;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.swsisolutions.compundinterest.ExactInterest;
+import com.swsisolutions.compundinterest.InterestConfig;
+import com.swsisolutions.compundinterest.InterestService;
+
+// Time per quote in the three ways of computing it: closed-form double, exact with the scaled-long fast path (the
+// EXACT mode as served) and the same exact result done entirely in BigDecimal. The fast path only holds while
+// principal * growth^years fits a long, so at longer terms the EXACT mode is mostly the BigDecimal.pow fallback.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(InterestModeBenchmark.QUOTES)
+public class InterestModeBenchmark {
+
+    static final int QUOTES = 256;
+
+    @Param({"8.0", "8.5"})
+    double rate;
+
+    @Param({"5", "30", "300"})
+    int maxYears;
+
+    private InterestService service;
+    private ExactInterest exact;
+    private double[] principals;
+    private BigDecimal[] exactPrincipals;
+    private int[] years;
+
+    @Setup
+    public void setUp() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(rate);
+        service = new InterestService(config);
+        exact = new ExactInterest(rate);
+        SplittableRandom random = new SplittableRandom(42);
+        principals = new double[QUOTES];
+        exactPrincipals = new BigDecimal[QUOTES];
+        years = new int[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            long cents = 10_000 + random.nextLong(100_000_000);
+            principals[i] = cents / 100.0;
+            exactPrincipals[i] = BigDecimal.valueOf(cents, 2);
+            years[i] = 1 + random.nextInt(maxYears);
+        }
+    }
+
+    @Benchmark
+    public void doubleMode(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            blackhole.consume(service.calculateCompoundInterest(principals[i], years[i]));
+        }
+    }
+
+    @Benchmark
+    public void exactScaledLong(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            blackhole.consume(service.calculateExactInterest(exactPrincipals[i], years[i]));
+        }
+    }
+
+    @Benchmark
+    public void exactBigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            blackhole.consume(exact.interestWithBigDecimal(exactPrincipals[i], years[i]));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.swsisolutions.compundinterest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Exact compound interest for one rate: principal * (1 + rate/100)^years - principal computed without rounding and
+// taken to the cent (HALF_EVEN) once at the end, i.e. the double closed form done in decimal.
+// The growth factor is the fraction g/d (reduced), so the interest is principal * (g^years - d^years) / d^years.
+// While every term fits a long that is a handful of multiplications and one rounding division; once one doesn't
+// (a long term, a large principal, a rate or principal with many digits) it falls back to BigDecimal.pow. Both
+// paths are exact, so the result doesn't depend on which one ran.
+public final class ExactInterest {
+
+    private static final int MAX_FAST_RATE_SCALE = 16;
+    // the answer to any long arithmetic that didn't fit
+    private static final long OVERFLOW = Long.MIN_VALUE;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final double rate;
+    private final BigDecimal growth;
+    // 1 + rate/100 = growthNumerator / growthDenominator in lowest terms (denominator 0: no fast path)
+    private final long growthNumerator;
+    private final long growthDenominator;
+
+    public ExactInterest(double rate) {
+        this.rate = rate;
+        BigDecimal percent = BigDecimal.valueOf(rate);
+        this.growth = BigDecimal.ONE.add(percent.movePointLeft(2));
+        BigDecimal stripped = percent.stripTrailingZeros();
+        int scale = Math.max(0, stripped.scale());
+        BigDecimal scaled = stripped.setScale(scale);
+        if (scale <= MAX_FAST_RATE_SCALE && scaled.unscaledValue().bitLength() < Long.SIZE - 2) {
+            // rate% = unscaled / 10^scale, so 1 + rate/100 = (100 * 10^scale + unscaled) / (100 * 10^scale)
+            long denominator = 100 * POWERS_OF_TEN[scale];
+            long numerator = denominator + scaled.unscaledValue().longValue();
+            long divisor = gcd(Math.abs(numerator), denominator);
+            growthNumerator = numerator / divisor;
+            growthDenominator = denominator / divisor;
+        } else {
+            growthNumerator = 0;
+            growthDenominator = 0;
+        }
+    }
+
+    boolean isFor(double rate) {
+        return Double.doubleToLongBits(this.rate) == Double.doubleToLongBits(rate);
+    }
+
+    // The interest with scale 2, for years >= 0
+    public BigDecimal interest(BigDecimal principal, int years) {
+        checkYears(years);
+        int scale = principal.scale();
+        if (growthDenominator == 0 || scale > 2 + 18 || scale < 2 - 18
+                || principal.unscaledValue().bitLength() >= Long.SIZE - 1) {
+            return interestWithBigDecimal(principal, years);
+        }
+        // principal in cents = numerator / denominator
+        long numerator = principal.unscaledValue().longValue();
+        long denominator = 1;
+        if (scale <= 2) {
+            numerator = multiply(numerator, POWERS_OF_TEN[2 - scale]);
+        } else {
+            denominator = POWERS_OF_TEN[scale - 2];
+        }
+        long grown = pow(growthNumerator, years);
+        long base = pow(growthDenominator, years);
+        long difference = grown - base;
+        if (grown == OVERFLOW || base == OVERFLOW || ((grown ^ base) & (grown ^ difference)) < 0) {
+            return interestWithBigDecimal(principal, years);
+        }
+        numerator = multiply(numerator, difference);
+        denominator = multiply(denominator, base);
+        if (numerator == OVERFLOW || denominator == OVERFLOW) {
+            return interestWithBigDecimal(principal, years);
+        }
+        return BigDecimal.valueOf(divideHalfEven(numerator, denominator), 2);
+    }
+
+    // Same result as interest(), always in BigDecimal
+    public BigDecimal interestWithBigDecimal(BigDecimal principal, int years) {
+        checkYears(years);
+        return principal.multiply(growth.pow(years)).subtract(principal).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static void checkYears(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("years must be >= 0, was " + years);
+        }
+    }
+
+    // base^exponent by squaring, or OVERFLOW; the last square is skipped, so it only overflows when the result does
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = multiply(result, base);
+            }
+            exponent >>>= 1;
+            if (exponent > 0) {
+                base = multiply(base, base);
+            }
+            if (result == OVERFLOW) {
+                return OVERFLOW;
+            }
+        }
+        return result;
+    }
+
+    // a * b, or OVERFLOW when either is OVERFLOW or the product doesn't fit
+    private static long multiply(long a, long b) {
+        long product = a * b;
+        if (a == OVERFLOW || b == OVERFLOW || Math.multiplyHigh(a, b) != (product >> 63) || product == OVERFLOW) {
+            return OVERFLOW;
+        }
+        return product;
+    }
+
+    // value / divisor rounded HALF_EVEN, for divisor > 0
+    private static long divideHalfEven(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = Math.abs(value % divisor);
+        long rest = divisor - remainder;
+        if (remainder > rest || (remainder == rest && (quotient & 1) != 0)) {
+            quotient += (value < 0) ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long next = a % b;
+            a = b;
+            b = next;
+        }
+        return a;
+    }
+}
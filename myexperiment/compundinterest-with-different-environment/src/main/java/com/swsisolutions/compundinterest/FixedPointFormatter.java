@@ -0,0 +1,58 @@
+package com.swsisolutions.compundinterest;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+// Appends a double exactly as String.format("%.2f", value) renders it, without going through Formatter.
+// Rounding is HALF_UP on the decimal value, which only differs from rounding value * 100 when that product sits
+// within float error of a half cent; those values, non-finite ones and magnitudes of 2^43 cents or more are
+// handed to String.format itself, so the output is the same byte for byte. Always ASCII ('.' separator), which is
+// also what the default locale gives whenever matchesDefaultLocale() is true.
+final class FixedPointFormatter {
+
+    // below this many cents the fraction of value * 100 is still accurate to about 1e-3
+    private static final double FAST_LIMIT = 0x1p43;
+
+    private static volatile LocaleCheck localeCheck = new LocaleCheck(null, false);
+
+    private FixedPointFormatter() {
+    }
+
+    // String.format localizes digits, the decimal separator and the minus sign; the fast path only writes ASCII
+    static boolean matchesDefaultLocale() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleCheck check = localeCheck;
+        if (!locale.equals(check.locale())) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            check = new LocaleCheck(locale, symbols.getZeroDigit() == '0'
+                    && symbols.getDecimalSeparator() == '.' && symbols.getMinusSign() == '-');
+            localeCheck = check;
+        }
+        return check.compatible();
+    }
+
+    // Text callers check matchesDefaultLocale first; JSON wants the ASCII form regardless
+    static void appendCents(StringBuilder out, double value) {
+        double scaled = Math.abs(value) * 100;
+        if (!(scaled < FAST_LIMIT)) {
+            out.append(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) <= Math.max(1e-6, 8 * Math.ulp(scaled))) {
+            out.append(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        long cents = (long) floor + (fraction > 0.5 ? 1 : 0);
+        // the sign bit, so -0.001 prints as -0.00 the way Formatter does
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+        }
+        int rest = (int) (cents % 100);
+        out.append(cents / 100).append('.').append((char) ('0' + rest / 10)).append((char) ('0' + rest % 10));
+    }
+
+    private record LocaleCheck(Locale locale, boolean compatible) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.swsisolutions.compundinterest;
+
+import java.util.Arrays;
+
+// (1 + rate/100)^years for one rate and years 0..size-1. Immutable: a longer horizon or a new rate means a new
+// table. Each entry is computed with Math.pow, so a lookup returns exactly what the formula would.
+final class GrowthFactorTable {
+
+    static final int INITIAL_YEARS = 128;
+    // longer horizons, and negative ones, are computed on every call instead
+    static final int MAX_YEARS = 1 << 14;
+
+    private final double rate;
+    private final double growth;
+    private final double[] factors;
+
+    GrowthFactorTable(double rate) {
+        this(rate, new double[0], INITIAL_YEARS);
+    }
+
+    private GrowthFactorTable(double rate, double[] known, int size) {
+        this.rate = rate;
+        this.growth = 1 + rate / 100;
+        this.factors = Arrays.copyOf(known, size);
+        for (int years = known.length; years < size; years++) {
+            factors[years] = Math.pow(growth, years);
+        }
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    boolean isFor(double rate) {
+        return Double.doubleToLongBits(this.rate) == Double.doubleToLongBits(rate);
+    }
+
+    boolean covers(int years) {
+        return years < factors.length || years < 0 || years >= MAX_YEARS;
+    }
+
+    double factor(int years) {
+        return (years >= 0 && years < factors.length) ? factors[years] : Math.pow(growth, years);
+    }
+
+    // At least doubles, so a slowly growing horizon doesn't copy the table on every call
+    GrowthFactorTable extendTo(int years) {
+        int size = Math.min(MAX_YEARS, Math.max(years + 1, factors.length * 2));
+        return new GrowthFactorTable(rate, factors, size);
+    }
+}
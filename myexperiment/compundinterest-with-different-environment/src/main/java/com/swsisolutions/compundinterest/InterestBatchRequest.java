@@ -0,0 +1,24 @@
+package com.swsisolutions.compundinterest;
+
+// POST /calculate-interest/batch body: principals[i] is quoted over years[i]
+public class InterestBatchRequest {
+
+    private double[] principals;
+    private int[] years;
+
+    public double[] getPrincipals() {
+        return principals;
+    }
+
+    public void setPrincipals(double[] principals) {
+        this.principals = principals;
+    }
+
+    public int[] getYears() {
+        return years;
+    }
+
+    public void setYears(int[] years) {
+        this.years = years;
+    }
+}
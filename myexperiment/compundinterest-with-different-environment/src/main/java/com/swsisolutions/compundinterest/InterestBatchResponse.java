@@ -0,0 +1,20 @@
+package com.swsisolutions.compundinterest;
+
+public class InterestBatchResponse {
+
+    private final double rate;
+    private final double[] interest;
+
+    public InterestBatchResponse(double rate, double[] interest) {
+        this.rate = rate;
+        this.interest = interest;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double[] getInterest() {
+        return interest;
+    }
+}
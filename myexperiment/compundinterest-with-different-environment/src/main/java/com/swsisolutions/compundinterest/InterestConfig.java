@@ -7,7 +7,10 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "app.interest")
 public class InterestConfig {
 
-    private double rate;
+    // volatile: InterestService compares it on every quote to notice a rebind
+    private volatile double rate;
+    // default for requests that don't pass ?mode=
+    private InterestMode mode = InterestMode.DOUBLE;
 
     public double getRate() {
         return rate;
@@ -16,4 +19,12 @@ public class InterestConfig {
     public void setRate(double rate) {
         this.rate = rate;
     }
-}
\ No newline at end of file
+
+    public InterestMode getMode() {
+        return mode;
+    }
+
+    public void setMode(InterestMode mode) {
+        this.mode = mode;
+    }
+}
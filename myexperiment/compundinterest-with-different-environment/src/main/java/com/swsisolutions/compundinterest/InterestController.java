@@ -1,13 +1,45 @@
 package com.swsisolutions.compundinterest;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 public class InterestController {
 
+    // binary batch record: principal (double) followed by years (int), big-endian
+    private static final int RECORD_BYTES = Double.BYTES + Integer.BYTES;
+    private static final int BINARY_CHUNK = 8192;
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    // principals x years; the stream itself needs no memory per row, this only bounds a single response
+    private static final long MAX_SCHEDULE_ROWS = 10_000_000;
+    // longest term in any mode: every double quote comes from the growth-factor table, and an exact quote (a
+    // BigDecimal power with a few digits per year once it outgrows a long) stays in the tens of milliseconds
+    private static final int MAX_YEARS = GrowthFactorTable.MAX_YEARS;
+    // per-thread response text buffer, reused across requests
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
     private final InterestService interestService;
 
     @Autowired
@@ -15,15 +47,224 @@ public class InterestController {
         this.interestService = interestService;
     }
 
+    // ?mode=exact (or app.interest.mode=exact) computes the same formula in exact decimal instead of floating point
     @GetMapping("/calculate-interest")
     public String calculate(
             @RequestParam("principal") double principal,
-            @RequestParam("years") int years) {
+            @RequestParam("years") int years,
+            @RequestParam(value = "mode", required = false) String mode) {
+
+        checkYears(years);
+        double rate = interestService.getInterestConfig().getRate();
+        if (mode(mode) == InterestMode.EXACT) {
+            BigDecimal interest = interestService.calculateExactInterest(exactPrincipal(principal, years), years);
+            StringBuilder text = buffer();
+            text.append("Using interest rate of ");
+            FixedPointFormatter.appendCents(text, rate);
+            text.append("%: Compound interest for Principal $");
+            FixedPointFormatter.appendCents(text, principal);
+            text.append(" over ").append(years).append(" years is $").append(interest.toPlainString());
+            return text.toString();
+        }
 
         double interest = interestService.calculateCompoundInterest(principal, years);
+        if (!FixedPointFormatter.matchesDefaultLocale()) {
+            return String.format("Using interest rate of %.2f%%: Compound interest for Principal $%.2f over %d years is $%.2f",
+                    rate, principal, years, interest);
+        }
+        // same text as the String.format above, built in a reused buffer
+        StringBuilder text = buffer();
+        text.append("Using interest rate of ");
+        FixedPointFormatter.appendCents(text, rate);
+        text.append("%: Compound interest for Principal $");
+        FixedPointFormatter.appendCents(text, principal);
+        text.append(" over ").append(years).append(" years is $");
+        FixedPointFormatter.appendCents(text, interest);
+        return text.toString();
+    }
+
+    // GET /calculate-interest?principal=1000&years=10&format=json
+    // -> {"rate":8.00,"principal":1000.00,"years":10,"interest":1158.92}, amounts rounded like the text answer
+    @GetMapping(value = "/calculate-interest", params = "format=json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public byte[] calculateJson(
+            @RequestParam("principal") double principal,
+            @RequestParam("years") int years,
+            @RequestParam(value = "mode", required = false) String mode) {
+
+        checkYears(years);
         double rate = interestService.getInterestConfig().getRate();
+        StringBuilder json = buffer();
+        json.append("{\"rate\":");
+        appendJsonAmount(json, rate);
+        if (mode(mode) == InterestMode.EXACT) {
+            BigDecimal interest = interestService.calculateExactInterest(exactPrincipal(principal, years), years);
+            json.append(",\"principal\":");
+            appendJsonAmount(json, principal);
+            json.append(",\"years\":").append(years)
+                    .append(",\"interest\":").append(interest.toPlainString());
+        } else {
+            double interest = interestService.calculateCompoundInterest(principal, years);
+            json.append(",\"principal\":");
+            appendJsonAmount(json, principal);
+            json.append(",\"years\":").append(years).append(",\"interest\":");
+            appendJsonAmount(json, interest);
+        }
+        json.append('}');
+        // ASCII only, so each char is one byte
+        byte[] body = new byte[json.length()];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) json.charAt(i);
+        }
+        return body;
+    }
+
+    // GET /calculate-interest/schedule?principal=1000,2500&years=300[&format=ndjson]
+    // Balance and interest to date of every principal at the end of each year, streamed as CSV (default) or NDJSON
+    @GetMapping("/calculate-interest/schedule")
+    public ResponseEntity<StreamingResponseBody> schedule(
+            @RequestParam("principal") double[] principals,
+            @RequestParam("years") int years,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+
+        boolean ndjson = switch (format) {
+            case "csv" -> false;
+            case "ndjson" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        };
+        checkYears(years);
+        if (principals.length == 0 || years < 0 || (long) principals.length * years > MAX_SCHEDULE_ROWS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Need at least one principal, and at most " + MAX_SCHEDULE_ROWS + " principal-years");
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+            StringBuilder row = new StringBuilder(96);
+            if (!ndjson) {
+                writer.write("year,principal,balance,interest\n");
+            }
+            interestService.calculateSchedule(principals, years, (year, index, balance) -> {
+                double principal = principals[index];
+                row.setLength(0);
+                if (ndjson) {
+                    row.append("{\"year\":").append(year).append(",\"principal\":");
+                    appendJsonAmount(row, principal);
+                    row.append(",\"balance\":");
+                    appendJsonAmount(row, balance);
+                    row.append(",\"interest\":");
+                    appendJsonAmount(row, balance - principal);
+                    row.append("}\n");
+                } else {
+                    row.append(year).append(',');
+                    FixedPointFormatter.appendCents(row, principal);
+                    row.append(',');
+                    FixedPointFormatter.appendCents(row, balance);
+                    row.append(',');
+                    FixedPointFormatter.appendCents(row, balance - principal);
+                    row.append('\n');
+                }
+                writer.append(row);
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : TEXT_CSV)
+                .body(body);
+    }
+
+    // {"principals": [...], "years": [...]} -> {"rate": r, "interest": [...]}, one result per pair
+    @PostMapping(value = "/calculate-interest/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public InterestBatchResponse calculateBatch(@RequestBody InterestBatchRequest request) {
+        double[] principals = request.getPrincipals();
+        int[] years = request.getYears();
+        if (principals == null || years == null || principals.length != years.length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "principals and years must have the same length");
+        }
+        for (int term : years) {
+            checkYears(term);
+        }
+        double[] interest = new double[principals.length];
+        double rate = interestService.calculateCompoundInterest(principals, years, interest, principals.length);
+        return new InterestBatchResponse(rate, interest);
+    }
+
+    // Binary batch: the body is a run of (principal, years) records and the response one interest double per
+    // record, in the same order. Handled a chunk at a time, so the number of quotes doesn't affect memory.
+    // Earlier chunks may already be sent when a bad term turns up, so a term over MAX_YEARS answers NaN in its slot
+    // rather than failing the request.
+    @PostMapping(value = "/calculate-interest/batch", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void calculateBatch(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        byte[] input = new byte[BINARY_CHUNK * RECORD_BYTES];
+        byte[] output = new byte[BINARY_CHUNK * Double.BYTES];
+        double[] principals = new double[BINARY_CHUNK];
+        int[] years = new int[BINARY_CHUNK];
+        double[] interest = new double[BINARY_CHUNK];
+        OutputStream out = response.getOutputStream();
+
+        int read;
+        while ((read = body.readNBytes(input, 0, input.length)) > 0) {
+            // only the last chunk can come up short
+            if (read % RECORD_BYTES != 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Body ends in the middle of a record");
+            }
+            int count = read / RECORD_BYTES;
+            ByteBuffer records = ByteBuffer.wrap(input, 0, read);
+            for (int i = 0; i < count; i++) {
+                principals[i] = records.getDouble();
+                years[i] = records.getInt();
+                if (years[i] > MAX_YEARS) {
+                    // NaN * factor - NaN is NaN
+                    principals[i] = Double.NaN;
+                    years[i] = 0;
+                }
+            }
+            interestService.calculateCompoundInterest(principals, years, interest, count);
+            ByteBuffer results = ByteBuffer.wrap(output);
+            for (int i = 0; i < count; i++) {
+                results.putDouble(interest[i]);
+            }
+            out.write(output, 0, count * Double.BYTES);
+        }
+    }
+
+    private static void checkYears(int years) {
+        if (years > MAX_YEARS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "years must be at most " + MAX_YEARS);
+        }
+    }
+
+    private InterestMode mode(String mode) {
+        if (mode == null) {
+            return interestService.getInterestConfig().getMode();
+        }
+        try {
+            return InterestMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mode must be double or exact");
+        }
+    }
+
+    // The decimal the double was parsed from (exact up to 15 significant digits)
+    private static BigDecimal exactPrincipal(double principal, int years) {
+        if (!Double.isFinite(principal) || years < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exact mode needs a finite principal and years >= 0");
+        }
+        return BigDecimal.valueOf(principal);
+    }
+
+    // JSON has no NaN or Infinity (a huge horizon overflows to Infinity), and numbers always use '.'
+    private static void appendJsonAmount(StringBuilder json, double value) {
+        if (!Double.isFinite(value)) {
+            json.append("null");
+        } else {
+            FixedPointFormatter.appendCents(json, value);
+        }
+    }
 
-        return String.format("Using interest rate of %.2f%%: Compound interest for Principal $%.2f over %d years is $%.2f",
-                rate, principal, years, interest);
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
     }
 }
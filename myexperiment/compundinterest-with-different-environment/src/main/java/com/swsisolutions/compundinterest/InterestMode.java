@@ -0,0 +1,7 @@
+package com.swsisolutions.compundinterest;
+
+// DOUBLE: closed-form floating point. EXACT: the same closed form in decimal, rounded to the cent (see ExactInterest)
+public enum InterestMode {
+    DOUBLE,
+    EXACT
+}
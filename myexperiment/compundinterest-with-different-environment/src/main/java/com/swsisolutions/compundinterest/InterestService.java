@@ -1,12 +1,25 @@
 package com.swsisolutions.compundinterest;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class InterestService {
 
+    // batches at least this long are split into chunks computed on the common pool
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int PARALLEL_CHUNK = 1 << 13;
+
     private final InterestConfig interestConfig;
+    // swapped whole when the bound rate changes or a longer horizon is asked for
+    private final AtomicReference<GrowthFactorTable> growthFactors;
+    // immutable, so replacing it on a rate change needs no more than a volatile write
+    private volatile ExactInterest exactInterest;
 
     public InterestConfig getInterestConfig() {
         return interestConfig;
@@ -15,14 +28,89 @@ public class InterestService {
     @Autowired
     public InterestService(InterestConfig interestConfig) {
         this.interestConfig = interestConfig;
+        this.growthFactors = new AtomicReference<>(new GrowthFactorTable(interestConfig.getRate()));
+        this.exactInterest = new ExactInterest(interestConfig.getRate());
     }
 
     public double calculateCompoundInterest(double principal, int years) {
         // A = P(1 + r/n)^(nt)
-        // Assuming compounding is annual (n=1)
-        double rate = interestConfig.getRate();
-        double amount = principal * Math.pow((1 + rate / 100), years);
+        // Assuming compounding is annual (n=1); (1 + r)^t comes from the growth-factor table
+        double amount = principal * growthFactors(years).factor(years);
         // Return the interest amount (Total Amount - Principal)
         return amount - principal;
     }
-}
\ No newline at end of file
+
+    // Exact interest (InterestMode.EXACT): the closed form in decimal, rounded to the cent once at the end
+    public BigDecimal calculateExactInterest(BigDecimal principal, int years) {
+        double rate = interestConfig.getRate();
+        ExactInterest exact = exactInterest;
+        if (!exact.isFor(rate)) {
+            exact = new ExactInterest(rate);
+            exactInterest = exact;
+        }
+        return exact.interest(principal, years);
+    }
+
+    // Batch form: interest[i] for principals[i] over years[i], for the first length entries.
+    // Same arithmetic as the single call, so every result is identical to it. Returns the rate used.
+    public double calculateCompoundInterest(double[] principals, int[] years, double[] interest, int length) {
+        int longest = 0;
+        for (int i = 0; i < length; i++) {
+            longest = Math.max(longest, years[i]);
+        }
+        GrowthFactorTable table = growthFactors(longest);
+        if (length < PARALLEL_THRESHOLD) {
+            compute(table, principals, years, interest, 0, length);
+        } else {
+            IntStream.range(0, (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK).parallel().forEach(chunk -> {
+                int from = chunk * PARALLEL_CHUNK;
+                compute(table, principals, years, interest, from, Math.min(length, from + PARALLEL_CHUNK));
+            });
+        }
+        return table.getRate();
+    }
+
+    // Balance of every principal at the end of years 1..years, year by year. Each balance is the previous one times
+    // the one-year factor, so a row costs one multiplication rather than a pow; after many years the last digits
+    // can differ from the closed form. Memory is one balance per principal whatever the horizon.
+    public void calculateSchedule(double[] principals, int years, BalanceConsumer consumer) throws IOException {
+        double growth = growthFactors(1).factor(1);
+        double[] balances = principals.clone();
+        for (int year = 1; year <= years; year++) {
+            for (int i = 0; i < balances.length; i++) {
+                balances[i] *= growth;
+                consumer.accept(year, i, balances[i]);
+            }
+        }
+    }
+
+    public interface BalanceConsumer {
+        void accept(int year, int index, double balance) throws IOException;
+    }
+
+    private static void compute(GrowthFactorTable table, double[] principals, int[] years, double[] interest,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            double principal = principals[i];
+            interest[i] = principal * table.factor(years[i]) - principal;
+        }
+    }
+
+    // The table for the current app.interest.rate covering the horizon. A rate change (a rebind or a setter call)
+    // is noticed on the next quote and replaces the table in one step, so no quote mixes two rates.
+    GrowthFactorTable growthFactors(int years) {
+        double rate = interestConfig.getRate();
+        GrowthFactorTable table = growthFactors.get();
+        while (!table.isFor(rate) || !table.covers(years)) {
+            GrowthFactorTable next = table.isFor(rate) ? table : new GrowthFactorTable(rate);
+            if (!next.covers(years)) {
+                next = next.extendTo(years);
+            }
+            if (growthFactors.compareAndSet(table, next)) {
+                return next;
+            }
+            table = growthFactors.get();
+        }
+        return table;
+    }
+}
@@ -0,0 +1,128 @@
+package com.swsisolutions.compundinterest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ExactInterestTest {
+
+    // 1000 * 1.08^10 - 1000 = 1158.92499727..., the same cents as the double closed form
+    @Test
+    void referenceCase() {
+        assertInterest("1158.92", 8, "1000", 10);
+        assertInterest("-1158.92", 8, "-1000", 10);
+        assertInterest("80.00", 8, "1000", 1);
+        assertInterest("0.00", 8, "1000", 0);
+        // 1000 * 1.085^10 - 1000 = 1260.98344...
+        assertInterest("1260.98", 8.5, "1000", 10);
+        assertEquals(String.format("%.2f", 1000 * Math.pow(1.08, 10) - 1000),
+                new ExactInterest(8).interest(new BigDecimal("1000"), 10).toPlainString());
+    }
+
+    // rounded once, at the end, half to even
+    @Test
+    void roundsHalfEvenOnce() {
+        // 0.10 x 5% = 0.005 -> 0.00, 0.30 x 5% = 0.015 -> 0.02, 0.50 x 5% = 0.025 -> 0.02
+        assertInterest("0.00", 5, "0.10", 1);
+        assertInterest("0.02", 5, "0.30", 1);
+        assertInterest("0.02", 5, "0.50", 1);
+        assertInterest("-0.02", 5, "-0.30", 1);
+        assertInterest("0.00", 5, "-0.10", 1);
+        // 0.50 x 1.1^2 - 0.50 = 0.105 -> 0.10, 1.50 x 1.1^2 - 1.50 = 0.315 -> 0.32
+        assertInterest("0.10", 10, "0.50", 2);
+        assertInterest("0.32", 10, "1.50", 2);
+        // the principal isn't rounded first: 0.125 x 1.08 - 0.125 = 0.01
+        assertInterest("0.01", 8, "0.125", 1);
+        assertInterest("0.00", 8, "0.0625", 1);
+    }
+
+    @Test
+    void zeroAndNegativeRates() {
+        assertInterest("0.00", 0, "1000", 50);
+        // 1000 x 0.97^2 = 940.90
+        assertInterest("-59.10", -3, "1000", 2);
+        assertInterest("59.10", -3, "-1000", 2);
+        assertInterest("-1000.00", -100, "1000", 3);
+        assertInterest("0.00", -100, "1000", 0);
+        // (1 - 1.5)^2 = 0.25
+        assertInterest("-750.00", -150, "1000", 2);
+        assertInterest("-1500.00", -150, "1000", 1);
+    }
+
+    // the scaled longs overflow somewhere between these terms; the answer must not depend on where
+    @Test
+    void longPathHandsOverToBigDecimal() {
+        for (double rate : new double[] { 8, 8.5, 0.01, -3, 250 }) {
+            ExactInterest exact = new ExactInterest(rate);
+            for (String principal : new String[] { "0.01", "1000", "123456.78", "1e12", "92233720368547758.07",
+                    "1e20", "-1000", "0.125", "1e-25", "1E+3" }) {
+                for (int years = 0; years <= 70; years++) {
+                    BigDecimal amount = new BigDecimal(principal);
+                    assertEquals(naive(rate, amount, years), exact.interest(amount, years),
+                            principal + " at " + rate + "% over " + years);
+                }
+            }
+        }
+    }
+
+    // rates whose digits don't fit the scaled long use BigDecimal throughout
+    @Test
+    void longRatesUseBigDecimal() {
+        for (double rate : new double[] { 1e-20, 8.123456789012345, 1e18, 1e300, 3.3e-17 }) {
+            BigDecimal principal = new BigDecimal("123456.78");
+            assertEquals(naive(rate, principal, 3), new ExactInterest(rate).interest(principal, 3), "rate " + rate);
+        }
+    }
+
+    @Test
+    void seededRandomQuotesMatchTheNaiveBigDecimal() {
+        Random random = new Random(20261017L);
+        for (int i = 0; i < 5_000; i++) {
+            double rate = switch (i % 3) {
+                case 0 -> random.nextInt(-500, 2000) / 100.0;
+                case 1 -> random.nextInt(-50, 50) / 8.0;
+                default -> random.nextDouble() * 25;
+            };
+            BigDecimal principal = BigDecimal.valueOf(random.nextLong(-(1L << (10 + i % 53)), 1L << (10 + i % 53)),
+                    random.nextInt(0, 5));
+            int years = random.nextInt(0, 40);
+            assertEquals(naive(rate, principal, years), new ExactInterest(rate).interest(principal, years),
+                    () -> principal + " at " + rate + "% over " + years);
+        }
+    }
+
+    @Test
+    void negativeTermsAreRejected() {
+        ExactInterest exact = new ExactInterest(8);
+        assertThrows(IllegalArgumentException.class, () -> exact.interest(BigDecimal.TEN, -1));
+        assertThrows(IllegalArgumentException.class, () -> exact.interestWithBigDecimal(BigDecimal.TEN, -1));
+    }
+
+    @Test
+    void serviceFollowsARateChange() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(8);
+        InterestService service = new InterestService(config);
+        assertEquals(new BigDecimal("1158.92"), service.calculateExactInterest(new BigDecimal("1000"), 10));
+        config.setRate(8.5);
+        assertEquals(new BigDecimal("1260.98"), service.calculateExactInterest(new BigDecimal("1000"), 10));
+    }
+
+    // what a straight BigDecimal rewrite of principal * (1 + rate/100)^years - principal gives
+    private static BigDecimal naive(double rate, BigDecimal principal, int years) {
+        BigDecimal growth = BigDecimal.ONE.add(BigDecimal.valueOf(rate).divide(BigDecimal.valueOf(100)));
+        return principal.multiply(growth.pow(years)).subtract(principal).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static void assertInterest(String expected, double rate, String principal, int years) {
+        ExactInterest exact = new ExactInterest(rate);
+        BigDecimal amount = new BigDecimal(principal);
+        assertEquals(new BigDecimal(expected), exact.interest(amount, years), principal + " at " + rate + "%");
+        assertEquals(new BigDecimal(expected), exact.interestWithBigDecimal(amount, years), principal + " at " + rate + "%");
+    }
+}
@@ -0,0 +1,95 @@
+package com.swsisolutions.compundinterest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FixedPointFormatterTest {
+
+    @Test
+    void halfCentTies() {
+        for (double value : new double[] { 0.005, 0.015, 0.025, 0.125, 0.135, 1.005, 1.115, 2.675, 1000.005,
+                1158.925, 123456.785, 0.045, 10.495, 99.995, 999999.995, -0.005, -0.015, -2.675, -1.005 }) {
+            assertFormats(value);
+        }
+        // every half cent up to 100
+        for (int halfCents = 1; halfCents < 20_000; halfCents += 2) {
+            assertFormats(halfCents / 200.0);
+            assertFormats(-halfCents / 200.0);
+        }
+    }
+
+    @Test
+    void negativeZeroAndTinyNegatives() {
+        for (double value : new double[] { -0.0, 0.0, -0.001, -0.004, -0.0049999, -1e-300, -Double.MIN_VALUE,
+                Double.MIN_VALUE, 0.004, -0.006, -0.01 }) {
+            assertFormats(value);
+        }
+        assertEquals("-0.00", format(-0.001));
+    }
+
+    // 2^43 cents is where the formatter hands over to String.format
+    @Test
+    void aroundTheFastPathLimit() {
+        double limit = 0x1p43 / 100;
+        for (double value : new double[] { limit, Math.nextDown(limit), Math.nextUp(limit), limit - 0.01,
+                limit + 0.01, limit * 2, 0x1p53, 1e15, 1e20, Double.MAX_VALUE, 87960930222.07, 87960930222.085 }) {
+            assertFormats(value);
+            assertFormats(-value);
+        }
+    }
+
+    @Test
+    void nonFiniteValues() {
+        assertFormats(Double.NaN);
+        assertFormats(Double.POSITIVE_INFINITY);
+        assertFormats(Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    void seededRandomValues() {
+        Random random = new Random(20261017L);
+        for (int i = 0; i < 200_000; i++) {
+            // spread across magnitudes, plus whole and half cents that sit on rounding boundaries
+            double value = switch (i % 4) {
+                case 0 -> random.nextDouble() * 100;
+                case 1 -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(13));
+                case 2 -> random.nextLong(-1_000_000_000L, 1_000_000_000L) / 100.0;
+                default -> (2 * random.nextLong(-1_000_000_000L, 1_000_000_000L) + 1) / 200.0;
+            };
+            assertFormats(value);
+        }
+    }
+
+    @Test
+    void localeCheck() {
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+            assertTrue(FixedPointFormatter.matchesDefaultLocale());
+            Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+            assertFalse(FixedPointFormatter.matchesDefaultLocale());
+            Locale.setDefault(Locale.Category.FORMAT, Locale.forLanguageTag("ar-EG-u-nu-arab"));
+            assertFalse(FixedPointFormatter.matchesDefaultLocale());
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+
+    private static void assertFormats(double value) {
+        assertEquals(String.format(Locale.ROOT, "%.2f", value), format(value), () -> "value " + value);
+    }
+
+    private static String format(double value) {
+        StringBuilder out = new StringBuilder("x");
+        FixedPointFormatter.appendCents(out, value);
+        // appends, leaving what was there alone
+        assertEquals('x', out.charAt(0));
+        return out.substring(1);
+    }
+}
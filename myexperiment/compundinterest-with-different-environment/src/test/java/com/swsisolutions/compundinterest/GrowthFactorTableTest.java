@@ -0,0 +1,80 @@
+package com.swsisolutions.compundinterest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GrowthFactorTableTest {
+
+    @Test
+    void factorsAreExactlyMathPow() {
+        for (double rate : new double[] { 0, 8, 8.5, 0.1, -3, 250 }) {
+            GrowthFactorTable table = new GrowthFactorTable(rate).extendTo(GrowthFactorTable.MAX_YEARS);
+            for (int years : new int[] { 0, 1, 2, 10, 127, 128, 1000, GrowthFactorTable.MAX_YEARS - 1,
+                    GrowthFactorTable.MAX_YEARS, 100_000, -1, -50 }) {
+                assertBits(Math.pow(1 + rate / 100, years), table.factor(years), rate + "% over " + years);
+            }
+        }
+    }
+
+    @Test
+    void extendingKeepsEarlierEntriesAndCapsTheSize() {
+        GrowthFactorTable table = new GrowthFactorTable(8);
+        assertTrue(table.covers(GrowthFactorTable.INITIAL_YEARS - 1));
+        assertFalse(table.covers(GrowthFactorTable.INITIAL_YEARS));
+        // outside the table's range: computed per call, so nothing to extend
+        assertTrue(table.covers(-1));
+        assertTrue(table.covers(GrowthFactorTable.MAX_YEARS));
+
+        GrowthFactorTable longer = table.extendTo(GrowthFactorTable.INITIAL_YEARS);
+        assertTrue(longer.covers(2 * GrowthFactorTable.INITIAL_YEARS - 1));
+        assertTrue(longer.isFor(8));
+        for (int years = 0; years < GrowthFactorTable.INITIAL_YEARS; years++) {
+            assertBits(table.factor(years), longer.factor(years), "year " + years);
+        }
+        GrowthFactorTable full = longer.extendTo(Integer.MAX_VALUE - 1);
+        assertTrue(full.covers(GrowthFactorTable.MAX_YEARS - 1));
+    }
+
+    @Test
+    void serviceReusesTheTableUntilTheRateOrHorizonChanges() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(8);
+        InterestService service = new InterestService(config);
+
+        GrowthFactorTable table = service.growthFactors(10);
+        assertSame(table, service.growthFactors(100));
+
+        GrowthFactorTable longer = service.growthFactors(500);
+        assertNotSame(table, longer);
+        assertTrue(longer.covers(500));
+        assertSame(longer, service.growthFactors(20));
+
+        // a rebind is picked up on the next quote, with no stale factors
+        config.setRate(5);
+        assertBits(1000 * Math.pow(1.05, 10) - 1000, service.calculateCompoundInterest(1000, 10), "after rebind");
+        GrowthFactorTable rebound = service.growthFactors(10);
+        assertTrue(rebound.isFor(5));
+        assertFalse(rebound.isFor(8));
+    }
+
+    @Test
+    void serviceMatchesTheClosedForm() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(8.5);
+        InterestService service = new InterestService(config);
+        for (int years : new int[] { 0, 1, 10, 200, 5000, 20_000, -2 }) {
+            double principal = 1234.56;
+            assertBits(principal * Math.pow(1.085, years) - principal,
+                    service.calculateCompoundInterest(principal, years), "years " + years);
+        }
+    }
+
+    private static void assertBits(double expected, double actual, String message) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), message);
+    }
+}
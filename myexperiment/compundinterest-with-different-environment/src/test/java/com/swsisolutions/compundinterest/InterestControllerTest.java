@@ -0,0 +1,243 @@
+package com.swsisolutions.compundinterest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class InterestControllerTest {
+
+    private static final double[] PRINCIPALS = { 1000, 2500.5, 0.01, -300, 1e12, 1000 };
+    private static final int[] YEARS = { 10, 0, 30, 5, 300, 16_000 };
+
+    private InterestService interestService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        InterestConfig config = new InterestConfig();
+        config.setRate(8.0);
+        interestService = new InterestService(config);
+        mockMvc = MockMvcBuilders.standaloneSetup(new InterestController(interestService)).build();
+    }
+
+    @Test
+    void jsonBatchMatchesTheSingleCall() throws Exception {
+        String body = "{\"principals\":[1000,2500.5,0.01,-300,1e12,1000],\"years\":[10,0,30,5,300,16000]}";
+        mockMvc.perform(post("/calculate-interest/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rate").value(8.0))
+                .andExpect(jsonPath("$.interest.length()").value(PRINCIPALS.length))
+                .andExpect(result -> {
+                    for (int i = 0; i < PRINCIPALS.length; i++) {
+                        double expected = interestService.calculateCompoundInterest(PRINCIPALS[i], YEARS[i]);
+                        jsonPath("$.interest[" + i + "]").value(expected).match(result);
+                    }
+                });
+    }
+
+    @Test
+    void jsonBatchRejectsMismatchedLengths() throws Exception {
+        mockMvc.perform(post("/calculate-interest/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"principals\":[1000,2000],\"years\":[10]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/calculate-interest/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"principals\":[1000]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // every result bit for bit what the single call gives, in request order, across more than one chunk
+    @Test
+    void binaryBatchMatchesTheSingleCall() throws Exception {
+        int count = 20_000;
+        ByteBuffer request = ByteBuffer.allocate(count * (Double.BYTES + Integer.BYTES));
+        double[] principals = new double[count];
+        int[] years = new int[count];
+        for (int i = 0; i < count; i++) {
+            principals[i] = PRINCIPALS[i % PRINCIPALS.length] + i;
+            years[i] = YEARS[i % YEARS.length] + i % 7;
+            request.putDouble(principals[i]).putInt(years[i]);
+        }
+
+        MvcResult result = mockMvc.perform(post("/calculate-interest/batch")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(request.array()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ByteBuffer response = ByteBuffer.wrap(result.getResponse().getContentAsByteArray());
+        assertEquals(count * Double.BYTES, response.remaining());
+        for (int i = 0; i < count; i++) {
+            double expected = interestService.calculateCompoundInterest(principals[i], years[i]);
+            assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(response.getDouble()),
+                    "record " + i);
+        }
+    }
+
+    @Test
+    void binaryBatchRejectsAPartialRecord() throws Exception {
+        byte[] body = ByteBuffer.allocate(Double.BYTES + Integer.BYTES + 3).putDouble(1000).putInt(10).array();
+        mockMvc.perform(post("/calculate-interest/batch").contentType(MediaType.APPLICATION_OCTET_STREAM).content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emptyBinaryBatchAnswersNothing() throws Exception {
+        MvcResult result = mockMvc.perform(post("/calculate-interest/batch")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[0]))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void scheduleStreamsCsvRows() throws Exception {
+        String csv = stream(get("/calculate-interest/schedule").param("principal", "1000", "2500").param("years", "3"))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = csv.split("\n");
+        assertEquals(1 + 2 * 3, lines.length);
+        assertEquals("year,principal,balance,interest", lines[0]);
+        assertEquals("1,1000.00,1080.00,80.00", lines[1]);
+        assertEquals("1,2500.00,2700.00,200.00", lines[2]);
+        assertEquals("3,2500.00,3149.28,649.28", lines[6]);
+    }
+
+    @Test
+    void scheduleStreamsNdjsonRows() throws Exception {
+        String ndjson = stream(get("/calculate-interest/schedule").param("principal", "1000")
+                        .param("years", "2").param("format", "ndjson"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("""
+                {"year":1,"principal":1000.00,"balance":1080.00,"interest":80.00}
+                {"year":2,"principal":1000.00,"balance":1166.40,"interest":166.40}
+                """, ndjson);
+    }
+
+    // the last row is a year-by-year product, so it may differ from the closed form only in the last digits
+    @Test
+    void scheduleEndsNearTheClosedForm() throws Exception {
+        String[] lines = stream(get("/calculate-interest/schedule").param("principal", "1000").param("years", "300"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        String[] last = lines[lines.length - 1].split(",");
+        assertEquals("300", last[0]);
+        double closedForm = interestService.calculateCompoundInterest(1000, 300);
+        assertEquals(closedForm, Double.parseDouble(last[3]), closedForm * 1e-12);
+    }
+
+    @Test
+    void scheduleWithZeroYearsIsJustTheHeader() throws Exception {
+        String csv = stream(get("/calculate-interest/schedule").param("principal", "1000").param("years", "0"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("year,principal,balance,interest\n", csv);
+    }
+
+    @Test
+    void scheduleRejectsBadRequests() throws Exception {
+        mockMvc.perform(get("/calculate-interest/schedule").param("principal", "1000").param("years", "3")
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/calculate-interest/schedule").param("principal", "1000").param("years", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/calculate-interest/schedule").param("principal", "").param("years", "3"))
+                .andExpect(status().isBadRequest());
+        // 700 principals x 16,000 years is over the 10,000,000-row cap
+        String[] principals = new String[700];
+        Arrays.fill(principals, "1000");
+        mockMvc.perform(get("/calculate-interest/schedule").param("principal", principals).param("years", "16000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // 1000 at 8%: the exact closed form rounds to the same cents as the double one
+    @Test
+    void exactModeAnswersToTheCent() throws Exception {
+        mockMvc.perform(get("/calculate-interest").param("principal", "1000").param("years", "10")
+                        .param("mode", "exact"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "Using interest rate of 8.00%: Compound interest for Principal $1000.00 over 10 years is $1158.92"));
+        mockMvc.perform(get("/calculate-interest").param("principal", "1000").param("years", "10")
+                        .param("mode", "double").param("format", "json"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"rate\":8.00,\"principal\":1000.00,\"years\":10,\"interest\":1158.92}"));
+        mockMvc.perform(get("/calculate-interest").param("principal", "1000").param("years", "10")
+                        .param("mode", "fast"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // the term is capped in every mode, so ?years=2000000000&mode=exact can't pin a thread
+    @Test
+    void yearsOverTheCapAreRejected() throws Exception {
+        String tooLong = String.valueOf(GrowthFactorTable.MAX_YEARS + 1);
+        for (String mode : new String[] { "double", "exact" }) {
+            mockMvc.perform(get("/calculate-interest").param("principal", "1000").param("years", "2000000000")
+                            .param("mode", mode))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/calculate-interest").param("principal", "1000").param("years", tooLong)
+                            .param("mode", mode).param("format", "json"))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/calculate-interest").param("principal", "1000")
+                        .param("years", String.valueOf(GrowthFactorTable.MAX_YEARS)).param("mode", "exact"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/calculate-interest/schedule").param("principal", "1000").param("years", tooLong))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/calculate-interest/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"principals\":[1000,1000],\"years\":[10," + tooLong + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // the binary batch streams its answer, so a term over the cap is reported in its own slot as NaN: with the
+    // first chunk already sent, a 400 could no longer reach the client and the body would just stop short
+    @Test
+    void binaryBatchAnswersNaNForTermsOverTheCap() throws Exception {
+        int count = 8192 + 100;
+        int invalid = 8192 + 7;
+        ByteBuffer request = ByteBuffer.allocate(count * (Double.BYTES + Integer.BYTES));
+        for (int i = 0; i < count; i++) {
+            request.putDouble(1000 + i).putInt(i == invalid ? Integer.MAX_VALUE : i % 50);
+        }
+
+        MvcResult result = mockMvc.perform(post("/calculate-interest/batch")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(request.array()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ByteBuffer response = ByteBuffer.wrap(result.getResponse().getContentAsByteArray());
+        assertEquals(count * Double.BYTES, response.remaining());
+        for (int i = 0; i < count; i++) {
+            double interest = response.getDouble();
+            if (i == invalid) {
+                assertTrue(Double.isNaN(interest));
+            } else {
+                assertEquals(interestService.calculateCompoundInterest(1000 + i, i % 50), interest, "record " + i);
+            }
+        }
+    }
+
+    // a StreamingResponseBody is written asynchronously: start the request, then dispatch its result
+    private ResultActions stream(RequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,93 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.model.User;
+
+// Encode and decode time of a /api/users list and a /api/books page in JSON, CBOR and Smile, with mappers built
+// the way BinaryFormatsConfig builds them. SampleTime mode reports the p99 next to the mean; the encoded size of
+// each payload is printed once per trial.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryFormatsBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"users", "books"})
+    String payload;
+
+    @Param({"100"})
+    int items;
+
+    ObjectMapper mapper;
+    JavaType type;
+    List<?> value;
+    byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        mapper = switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        if ("users".equals(payload)) {
+            List<User> users = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                users.add(new User((long) i, "User " + i, "user" + i + "@example.com", 18 + i % 60));
+            }
+            value = users;
+            type = mapper.getTypeFactory().constructCollectionType(List.class, User.class);
+        } else {
+            List<Book> books = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                Book book = new Book("Title " + i, "Author " + i % 50, LocalDate.of(1950 + i % 70, 1 + i % 12, 1));
+                book.setId((long) i);
+                books.add(book);
+            }
+            value = books;
+            type = mapper.getTypeFactory().constructCollectionType(List.class, Book.class);
+        }
+        encoded = mapper.writeValueAsBytes(value);
+        System.out.printf("%n%s %s x%d: %d bytes%n", format, payload, items, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return mapper.readValue(encoded, type);
+    }
+}
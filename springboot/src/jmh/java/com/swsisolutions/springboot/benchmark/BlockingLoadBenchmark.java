@@ -0,0 +1,84 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import com.swsisolutions.springboot.SpringbootApplication;
+
+// Closed-loop HTTP load against the app with platform threads (Tomcat's 200 workers) and with the virtual profile,
+// at each concurrency level. Every request runs a query that blocks inside H2 for the given latency while holding
+// a pooled connection, like a slow statement would. Reports requests/s, p50 and p99.
+// Run with ./gradlew blockingLoadBenchmark [-Pconcurrency=200,2000,20000] [-Platency=20] [-Pseconds=30] [-Ppool=50]
+// 20,000 connections need about 40,000 file descriptors for client and server together (ulimit -n).
+public class BlockingLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = (args.length > 0)
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] {200, 2_000, 20_000};
+        int latencyMillis = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 30;
+        int pool = (args.length > 3) ? Integer.parseInt(args[3]) : 50;
+
+        System.out.printf("%-9s %12s %12s %10s %10s %8s%n", "threads", "connections", "requests/s", "p50 ms", "p99 ms", "errors");
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual, pool)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                URI uri = URI.create("http://localhost:" + port + "/bench/query?ms=" + latencyMillis);
+                for (int connections : levels) {
+                    LoadGenerator.Result result = LoadGenerator.run(uri, connections, Duration.ofSeconds(seconds));
+                    System.out.printf("%-9s %12d %12.0f %10.1f %10.1f %8d%n", virtual ? "virtual" : "platform",
+                            connections, result.throughput(), result.p50Millis(), result.p99Millis(), result.errors());
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int pool) {
+        SpringApplication application = new SpringApplication(SpringbootApplication.class);
+        application.addInitializers(context -> ((GenericApplicationContext) context).registerBean(
+                "simulatedQuery", RouterFunction.class, () -> simulatedQuery(context.getBean(JdbcTemplate.class))));
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=warn",
+                "--spring.datasource.hikari.maximum-pool-size=" + pool,
+                "--spring.datasource.hikari.connection-timeout=60000",
+                // same connection limits in both modes, so only the threading model differs
+                "--server.tomcat.max-connections=30000",
+                "--server.tomcat.accept-count=1000"));
+        if (virtual) {
+            args.add("--spring.profiles.active=virtual");
+        }
+        return application.run(args.toArray(String[]::new));
+    }
+
+    // GET /bench/query?ms=20 - registered here rather than as a @RestController so it never leaks into the app
+    static RouterFunction<ServerResponse> simulatedQuery(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE ALIAS IF NOT EXISTS BENCH_SLEEP FOR '" + BlockingLoadBenchmark.class.getName() + ".sleep'");
+        return RouterFunctions.route()
+                .GET("/bench/query", request -> {
+                    int millis = Integer.parseInt(request.param("ms").orElse("20"));
+                    return ServerResponse.ok().body(String.valueOf(
+                            jdbc.queryForObject("SELECT BENCH_SLEEP(?)", Integer.class, millis)));
+                })
+                .build();
+    }
+
+    // called by H2 on the requesting thread
+    public static int sleep(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return millis;
+    }
+}
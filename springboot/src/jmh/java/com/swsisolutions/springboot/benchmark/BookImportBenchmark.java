@@ -0,0 +1,120 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.swsisolutions.springboot.SpringbootApplication;
+import com.swsisolutions.springboot.dto.BookImportResult;
+import com.swsisolutions.springboot.services.BookImportService;
+import com.swsisolutions.springboot.services.BookImportService.Format;
+
+// Imports generated CSV and NDJSON catalogues into the in-memory H2 database and reports rows/s and peak heap.
+// Run with ./gradlew bookImportBenchmark [-Prows=1000000]. A 100k-row warm-up import runs first.
+// The rows are generated while the importer reads them, so the harness itself adds no heap.
+// Peak heap is read from the JVM-wide pool peaks, which this harness resets before each import; the service
+// doesn't touch them, since in a running app other requests would move them too.
+public class BookImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        SpringApplication application = new SpringApplication(SpringbootApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = application.run("--spring.jpa.show-sql=false")) {
+            BookImportService importer = context.getBean(BookImportService.class);
+            importer.importBooks(new GeneratedRows(100_000, BookImportBenchmark::csvRow), Format.CSV);
+
+            System.out.printf("%-8s %10s %10s %12s %14s%n", "format", "rows", "millis", "rows/s", "peak heap MB");
+            for (Format format : Format.values()) {
+                IntFunction<String> render = (format == Format.CSV) ? BookImportBenchmark::csvRow : BookImportBenchmark::jsonRow;
+                resetHeapPeaks();
+                BookImportResult result = importer.importBooks(new GeneratedRows(rows, render), format);
+                System.out.printf("%-8s %10d %10d %12.0f %14d%n", format, result.getImported(),
+                        result.getElapsedMillis(), result.getRowsPerSecond(), heapPeak() >> 20);
+            }
+        }
+    }
+
+    static String csvRow(int i) {
+        return "Book " + i + ",Author " + (i % 5000) + "," + published(i) + "\n";
+    }
+
+    static String jsonRow(int i) {
+        return "{\"title\":\"Book " + i + "\",\"author\":\"Author " + (i % 5000) + "\",\"published\":\"" + published(i) + "\"}\n";
+    }
+
+    private static String published(int i) {
+        return String.format("%04d-%02d-%02d", 1900 + i % 120, 1 + i % 12, 1 + i % 28);
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // sum of the heap pools' peaks since the last reset
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    // An InputStream that renders one row at a time
+    static final class GeneratedRows extends InputStream {
+        private final int rows;
+        private final IntFunction<String> render;
+        private int row;
+        private byte[] current = new byte[0];
+        private int position;
+
+        GeneratedRows(int rows, IntFunction<String> render) {
+            this.rows = rows;
+            this.render = render;
+        }
+
+        @Override
+        public int read() {
+            if (position == current.length && !advance()) {
+                return -1;
+            }
+            return current[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == current.length && !advance()) {
+                return -1;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean advance() {
+            if (row == rows) {
+                return false;
+            }
+            current = render.apply(row++).getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
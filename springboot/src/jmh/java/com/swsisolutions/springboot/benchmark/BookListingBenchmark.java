@@ -0,0 +1,89 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.swsisolutions.springboot.SpringbootApplication;
+import com.swsisolutions.springboot.dto.BookResponse;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.repository.BookRepository;
+import com.swsisolutions.springboot.services.BookImportService;
+import com.swsisolutions.springboot.services.BookImportService.Format;
+import com.swsisolutions.springboot.services.BookService;
+
+// Listing a page of books as managed entities in a read-write transaction (the default path) against
+// the BookResponse constructor projection in a read-only transaction (BookService.findSummaries).
+// Allocation per page: ./gradlew jmh -Pjmh.includes=BookListingBenchmark -Pjmh.profilers=gc
+// and compare gc.alloc.rate.norm.
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookListingBenchmark {
+
+    private static final int BOOKS = 100_000;
+
+    @Param({"20", "1000"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    BookRepository bookRepository;
+    BookService bookService;
+    TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SpringApplication application = new SpringApplication(SpringbootApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run();
+        bookRepository = context.getBean(BookRepository.class);
+        bookService = context.getBean(BookService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        context.getBean(BookImportService.class)
+                .importBooks(new BookImportBenchmark.GeneratedRows(BOOKS, BookImportBenchmark::csvRow), Format.CSV);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> entities() {
+        PageRequest pageable = PageRequest.of(randomPage(), pageSize, Sort.by("id"));
+        return transactionTemplate.execute(status -> bookRepository.findAll(pageable).getContent());
+    }
+
+    @Benchmark
+    public List<BookResponse> projection() {
+        return bookService.findSummaries(null, randomPage(), pageSize);
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(BOOKS / pageSize);
+    }
+}
@@ -0,0 +1,145 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.swsisolutions.springboot.SpringbootApplication;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.services.BookImportService;
+import com.swsisolutions.springboot.services.BookImportService.Format;
+import com.swsisolutions.springboot.services.BookService;
+
+// BookService.search (inverted index + one load by id) against the equivalent LIKE '%term%' query on H2,
+// for one term, two AND-ed terms and a prefix term, at 100k and 1M books.
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookSearchBenchmark {
+
+    private static final int LIMIT = 100;
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"100000", "1000000"})
+    int books;
+
+    ConfigurableApplicationContext context;
+    BookService bookService;
+    JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SpringApplication application = new SpringApplication(SpringbootApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run();
+        bookService = context.getBean(BookService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        context.getBean(BookImportService.class)
+                .importBooks(new BookImportBenchmark.GeneratedRows(books, BookSearchBenchmark::row), Format.CSV);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> oneTermIndex() {
+        return bookService.search(word(), LIMIT);
+    }
+
+    @Benchmark
+    public List<Book> oneTermLike() {
+        return like(word());
+    }
+
+    @Benchmark
+    public List<Book> twoTermsIndex() {
+        return bookService.search(word() + " " + word(), LIMIT);
+    }
+
+    @Benchmark
+    public List<Book> twoTermsLike() {
+        return like(word(), word());
+    }
+
+    @Benchmark
+    public List<Book> prefixIndex() {
+        return bookService.search(prefix() + "*", LIMIT);
+    }
+
+    @Benchmark
+    public List<Book> prefixLike() {
+        return like(prefix());
+    }
+
+    // What a repository query over title and author would run without the index
+    private List<Book> like(String... terms) {
+        StringBuilder sql = new StringBuilder("select id, title, author, published from books where ");
+        Object[] args = new Object[terms.length * 2];
+        for (int i = 0; i < terms.length; i++) {
+            if (i > 0) {
+                sql.append(" and ");
+            }
+            sql.append("(lower(title) like ? or lower(author) like ?)");
+            args[2 * i] = "%" + terms[i].toLowerCase(Locale.ROOT) + "%";
+            args[2 * i + 1] = args[2 * i];
+        }
+        sql.append(" order by id limit ").append(LIMIT);
+        return jdbcTemplate.query(sql.toString(), (rs, n) -> {
+            Book book = new Book(rs.getString("title"), rs.getString("author"),
+                    rs.getObject("published", java.time.LocalDate.class));
+            book.setId(rs.getLong("id"));
+            return book;
+        }, args);
+    }
+
+    // Titles of three words and authors of two from a synthetic vocabulary ("zipo", "kamu", ...)
+    static String row(int i) {
+        return vocabulary(i * 31) + " " + vocabulary(i * 17 + 3) + " " + vocabulary(i / 3) + ","
+                + vocabulary(i % 5000) + " " + vocabulary(i % 977 + 7000) + ",2001-01-01\n";
+    }
+
+    static String vocabulary(int n) {
+        String syllables = "bakedifogahijukalemonipurasotuvawexiyozu";
+        int index = Math.floorMod(n, VOCABULARY);
+        StringBuilder word = new StringBuilder();
+        do {
+            int syllable = index % 20;
+            word.append(syllables, syllable * 2, syllable * 2 + 2);
+            index /= 20;
+        } while (index > 0);
+        return word.toString();
+    }
+
+    private static String word() {
+        return vocabulary(ThreadLocalRandom.current().nextInt(VOCABULARY));
+    }
+
+    private static String prefix() {
+        return vocabulary(ThreadLocalRandom.current().nextInt(400, 8000)).substring(0, 4);
+    }
+}
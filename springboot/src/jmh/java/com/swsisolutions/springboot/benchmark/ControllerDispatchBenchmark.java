@@ -0,0 +1,78 @@
+package com.swsisolutions.springboot.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swsisolutions.springboot.controller.UserController;
+import com.swsisolutions.springboot.exceptions.GlobalExceptionHandler;
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+// A request through DispatcherServlet to UserController and back, without a server or an application context:
+// handler mapping, argument resolution, validation, the handler and JSON conversion.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerDispatchBenchmark {
+
+    MockMvc mockMvc;
+    byte[] newUser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        UserService userService = new UserService();
+        for (int i = 0; i < 1_000; i++) {
+            userService.createUser(new User(null, "User " + i, "user" + i + "@example.com", 18 + i % 60));
+        }
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, objectMapper,
+                        Validation.buildDefaultValidatorFactory().getValidator()))
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry(), false))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        newUser = objectMapper.writeValueAsBytes(new User(null, "Jane Doe", "jane.doe@example.com", 34));
+    }
+
+    @Benchmark
+    public MvcResult getUser() throws Exception {
+        return mockMvc.perform(get("/api/users/42")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getMissingUser() throws Exception {
+        return mockMvc.perform(get("/api/users/999999")).andReturn();
+    }
+
+    // the store grows by one user per call; creation cost doesn't depend on its size
+    @Benchmark
+    public MvcResult createUser() throws Exception {
+        return mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(newUser)).andReturn();
+    }
+}
@@ -0,0 +1,94 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.swsisolutions.springboot.controller.UserController;
+import com.swsisolutions.springboot.exceptions.GlobalExceptionHandler;
+import com.swsisolutions.springboot.exceptions.ResourceNotFoundException;
+import com.swsisolutions.springboot.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The error path from throw to response bytes: building the exception, the handler, and encoding the body
+// (Jackson for the default mode, the hand-written encoder in storm mode).
+// ./gradlew jmh -Pjmh.includes=ErrorPathBenchmark -Pjmh.profilers=gc
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ErrorPathBenchmark {
+
+    @Param({"false", "true"})
+    boolean stormMode;
+
+    GlobalExceptionHandler handler;
+    // configured the way Spring Boot configures its ObjectMapper for LocalDateTime
+    ObjectMapper objectMapper;
+    WebRequest request;
+    MethodParameter createUserBody;
+    User invalidUser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry(), stormMode);
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/users/42"));
+        createUserBody = new MethodParameter(UserController.class.getMethod("createUser", User.class), 0);
+        invalidUser = new User();
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        return encode(handler.handleNotFoundException(
+                new ResourceNotFoundException("User not found with id 42"), request));
+    }
+
+    @Benchmark
+    public byte[] validation() throws Exception {
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(invalidUser, "user");
+        result.rejectValue("name", "NotBlank", "Name cannot be blank");
+        result.rejectValue("email", "Email", "Email should be valid");
+        return encode(handler.handleValidationException(
+                new MethodArgumentNotValidException(createUserBody, result), request));
+    }
+
+    // an ordinary exception still pays for its stack trace
+    @Benchmark
+    public byte[] runtime() throws Exception {
+        return encode(handler.handleRuntimeException(
+                new IllegalStateException("Something went wrong"), request));
+    }
+
+    private byte[] encode(ResponseEntity<Object> response) throws Exception {
+        Object body = response.getBody();
+        return body instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(body);
+    }
+}
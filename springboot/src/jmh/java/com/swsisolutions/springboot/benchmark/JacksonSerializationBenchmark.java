@@ -0,0 +1,102 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.swsisolutions.springboot.exceptions.ErrorResponse;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.model.User;
+
+// JSON encoding and decoding of single User, Book and ErrorResponse bodies with a mapper configured the way
+// Spring Boot configures its own (JavaTimeModule, ISO dates).
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JacksonSerializationBenchmark {
+
+    ObjectWriter userWriter;
+    ObjectReader userReader;
+    ObjectWriter bookWriter;
+    ObjectReader bookReader;
+    ObjectWriter errorWriter;
+
+    User user;
+    Book book;
+    ErrorResponse error;
+    ErrorResponse validationError;
+    byte[] userJson;
+    byte[] bookJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        userWriter = mapper.writerFor(User.class);
+        userReader = mapper.readerFor(User.class);
+        bookWriter = mapper.writerFor(Book.class);
+        bookReader = mapper.readerFor(Book.class);
+        errorWriter = mapper.writerFor(ErrorResponse.class);
+
+        user = new User(42L, "Jane Doe", "jane.doe@example.com", 34);
+        book = new Book("The Left Hand of Darkness", "Ursula K. Le Guin", LocalDate.of(1969, 3, 1));
+        book.setId(42L);
+        book.setVersion(3L);
+        error = new ErrorResponse(LocalDateTime.now(), 404, "Not Found", "User not found with id 42", "uri=/api/users/42");
+        validationError = new ErrorResponse(LocalDateTime.now(), 400, "Validation Error", "Validation failed", "uri=/api/users");
+        validationError.setErrors(List.of(
+                new ErrorResponse.FieldViolation("name", "Name cannot be blank"),
+                new ErrorResponse.FieldViolation("email", "Invalid email format")));
+        userJson = userWriter.writeValueAsBytes(user);
+        bookJson = bookWriter.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws Exception {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User readUser() throws Exception {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public byte[] writeBook() throws Exception {
+        return bookWriter.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book readBook() throws Exception {
+        return bookReader.readValue(bookJson);
+    }
+
+    @Benchmark
+    public byte[] writeErrorResponse() throws Exception {
+        return errorWriter.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] writeValidationErrorResponse() throws Exception {
+        return errorWriter.writeValueAsBytes(validationError);
+    }
+}
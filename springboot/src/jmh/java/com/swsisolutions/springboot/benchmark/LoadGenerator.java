@@ -0,0 +1,105 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP client shared by the load harnesses. Latencies cover 200 responses only; 503s are counted as
+// shed load rather than errors, since that is how the concurrency limiter answers when it is full.
+final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    // Each connection is a virtual thread sending requests back to back; the first fifth of the run is warm-up
+    static Result run(URI uri, int connections, Duration duration) throws InterruptedException {
+        // spread connections over several clients so a single selector thread doesn't become the bottleneck
+        HttpClient[] clients = new HttpClient[Math.max(1, connections / 1_000)];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).build();
+        long start = System.nanoTime();
+        long measureFrom = start + duration.toNanos() / 5;
+        long end = start + duration.toNanos();
+        long[][] latencies = new long[connections][];
+        int[] counts = new int[connections];
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int worker = c;
+                HttpClient client = clients[c % clients.length];
+                workers.execute(() -> {
+                    long[] samples = new long[256];
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long done = System.nanoTime();
+                            boolean measured = now >= measureFrom && done <= end;
+                            if (response.statusCode() == 503) {
+                                if (measured) {
+                                    rejected.incrementAndGet();
+                                }
+                            } else if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else if (measured) {
+                                if (count == samples.length) {
+                                    samples = Arrays.copyOf(samples, count * 2);
+                                }
+                                samples[count++] = done - now;
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    latencies[worker] = samples;
+                    counts[worker] = count;
+                });
+            }
+        }
+        for (HttpClient client : clients) {
+            client.close();
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < connections; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        double measuredSeconds = (end - measureFrom) / 1e9;
+        return new Result(total / measuredSeconds, percentile(all, 0.50), percentile(all, 0.99),
+                rejected.get() / measuredSeconds, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    // throughput and rejectedPerSecond over the measured part of the run; errors over the whole run
+    record Result(double throughput, double p50Millis, double p99Millis, double rejectedPerSecond, long errors) {
+
+        double rejectionRate() {
+            double offered = throughput + rejectedPerSecond;
+            return (offered == 0) ? 0 : rejectedPerSecond / offered;
+        }
+    }
+}
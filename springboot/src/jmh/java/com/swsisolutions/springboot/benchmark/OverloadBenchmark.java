@@ -0,0 +1,64 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.function.RouterFunction;
+
+import com.swsisolutions.springboot.SpringbootApplication;
+
+// Drives the app well past its capacity with and without the adaptive concurrency limit. Capacity is set by a
+// small connection pool in front of a query that blocks for the given latency (pool / latency requests/s).
+// Without the limit the excess queues for a connection and every request slows down; with it the excess gets a 503
+// and the accepted requests keep close to the unloaded latency. Reports accepted requests/s, p50, p99 and the
+// share of requests shed.
+// Run with ./gradlew overloadBenchmark [-Pconcurrency=50,500,2000] [-Platency=20] [-Pseconds=30] [-Ppool=10]
+public class OverloadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = (args.length > 0)
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] {50, 500, 2_000};
+        int latencyMillis = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 30;
+        int pool = (args.length > 3) ? Integer.parseInt(args[3]) : 10;
+
+        System.out.printf("%-8s %12s %12s %10s %10s %9s %8s%n",
+                "limiter", "connections", "accepted/s", "p50 ms", "p99 ms", "shed %", "errors");
+        for (boolean limited : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = start(limited, pool)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                URI uri = URI.create("http://localhost:" + port + "/bench/query?ms=" + latencyMillis);
+                for (int connections : levels) {
+                    LoadGenerator.Result result = LoadGenerator.run(uri, connections, Duration.ofSeconds(seconds));
+                    System.out.printf("%-8s %12d %12.0f %10.1f %10.1f %9.1f %8d%n", limited ? "on" : "off",
+                            connections, result.throughput(), result.p50Millis(), result.p99Millis(),
+                            result.rejectionRate() * 100, result.errors());
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean limited, int pool) {
+        SpringApplication application = new SpringApplication(SpringbootApplication.class);
+        application.addInitializers(context -> ((GenericApplicationContext) context).registerBean(
+                "simulatedQuery", RouterFunction.class,
+                () -> BlockingLoadBenchmark.simulatedQuery(context.getBean(JdbcTemplate.class))));
+        return application.run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=warn",
+                "--spring.datasource.hikari.maximum-pool-size=" + pool,
+                // long enough that the unlimited run queues instead of failing fast
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--server.tomcat.max-connections=10000",
+                "--server.tomcat.accept-count=1000",
+                "--app.limiter.enabled=" + limited,
+                "--app.limiter.url-patterns=/bench/*");
+    }
+}
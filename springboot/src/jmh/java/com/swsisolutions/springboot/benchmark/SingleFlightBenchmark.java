@@ -0,0 +1,82 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.swsisolutions.springboot.services.SingleFlight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// 32 threads looking up a few hot keys against a backend that takes a fixed time per call, with and without
+// SingleFlight in front. The backendCalls counter (per second, next to ops/s) is the load the backend sees;
+// with coalescing it stays near threads / latency however many requests arrive.
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(32)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SingleFlightBenchmark {
+
+    @Param({"1", "16"})
+    int hotKeys;
+
+    @Param({"1000"})
+    long backendLatencyMicros;
+
+    SingleFlight<Long, String> singleFlight;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        singleFlight = new SingleFlight<>("benchmark", new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Backend {
+        public long backendCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            backendCalls = 0;
+        }
+    }
+
+    @Benchmark
+    public String direct(Backend backend) {
+        return load(key(), backend);
+    }
+
+    @Benchmark
+    public String coalesced(Backend backend) {
+        long key = key();
+        return singleFlight.load(key, () -> load(key, backend));
+    }
+
+    private long key() {
+        return ThreadLocalRandom.current().nextInt(hotKeys);
+    }
+
+    private String load(long key, Backend backend) {
+        backend.backendCalls++;
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(backendLatencyMicros));
+        return "book-" + key;
+    }
+}
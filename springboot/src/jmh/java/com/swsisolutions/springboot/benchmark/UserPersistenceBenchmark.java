@@ -0,0 +1,148 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserService;
+import com.swsisolutions.springboot.store.ConcurrentMapUserStore;
+import com.swsisolutions.springboot.store.PersistentUserStore;
+import com.swsisolutions.springboot.store.UserPersistenceProperties;
+import com.swsisolutions.springboot.store.UserPersistenceProperties.SyncMode;
+
+// Write throughput of the persistent user store with a force per write (ALWAYS) against group commit (GROUP),
+// and the time to recover a store from a snapshot plus a log tail.
+// Results depend heavily on the disk: run it on the storage the service will use (-Djava.io.tmpdir=...).
+@Fork(1)
+public class UserPersistenceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+        @Param({"ALWAYS", "GROUP"})
+        SyncMode sync;
+
+        Path directory;
+        PersistentUserStore store;
+        UserService userService;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("user-wal-bench");
+            store = new PersistentUserStore(new ConcurrentMapUserStore(), properties(directory, sync));
+            userService = new UserService(store);
+            for (int i = 0; i < 10_000; i++) {
+                userService.createUser(newUser(i));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            store.close();
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(16)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public User update(Writes writes) {
+        return writes.userService.updateUser(ThreadLocalRandom.current().nextLong(1, 10_001), newUser(0));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recovery {
+        @Param({"100000", "1000000"})
+        int users;
+
+        // changes written after the last snapshot, which recovery replays from the log
+        @Param({"0", "100000"})
+        int tail;
+
+        Path directory;
+        UserPersistenceProperties properties;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("user-recovery-bench");
+            properties = properties(directory, SyncMode.GROUP);
+            try (PersistentUserStore store = new PersistentUserStore(new ConcurrentMapUserStore(), properties)) {
+                UserService userService = new UserService(store);
+                for (int i = 0; i < users; i++) {
+                    userService.createUser(newUser(i));
+                }
+                store.snapshot();
+                for (int i = 0; i < tail; i++) {
+                    userService.updateUser((long) (i % users) + 1, newUser(i));
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int recover(Recovery recovery) throws IOException {
+        try (PersistentUserStore store = new PersistentUserStore(new ConcurrentMapUserStore(), recovery.properties)) {
+            return store.size();
+        }
+    }
+
+    static UserPersistenceProperties properties(Path directory, SyncMode sync) {
+        UserPersistenceProperties properties = new UserPersistenceProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSync(sync);
+        properties.setSegmentSize(DataSize.ofMegabytes(64));
+        properties.setSnapshotInterval(Duration.ZERO);
+        return properties;
+    }
+
+    static User newUser(int i) {
+        return new User(null, "user" + i, "user" + i + "@example.com", 18 + (i % 60));
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserQuery;
+import com.swsisolutions.springboot.services.UserService;
+
+// Secondary-index lookups in UserService.search against a full scan of the store with the same query.
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+
+    private static final int LIMIT = 100;
+    private static final int DISTINCT_NAMES = 10_000;
+
+    @Param({"100000", "1000000"})
+    int users;
+
+    UserService userService;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService();
+        for (int i = 0; i < users; i++) {
+            userService.createUser(new User(null, "name" + (i % DISTINCT_NAMES), "user" + i + "@example.com", 18 + (i % 80)));
+        }
+    }
+
+    @Benchmark
+    public List<User> emailIndex() {
+        return userService.search(emailQuery(), LIMIT);
+    }
+
+    @Benchmark
+    public List<User> emailScan() {
+        return scan(emailQuery());
+    }
+
+    @Benchmark
+    public List<User> nameIndex() {
+        return userService.search(nameQuery(), LIMIT);
+    }
+
+    @Benchmark
+    public List<User> nameScan() {
+        return scan(nameQuery());
+    }
+
+    @Benchmark
+    public List<User> ageRangeIndex() {
+        return userService.search(ageQuery(), LIMIT);
+    }
+
+    @Benchmark
+    public List<User> ageRangeScan() {
+        return scan(ageQuery());
+    }
+
+    // What callers had to do before the indexes existed
+    private List<User> scan(UserQuery query) {
+        List<User> results = new ArrayList<>();
+        Iterator<User> all = userService.iterateUsers();
+        while (all.hasNext() && results.size() < LIMIT) {
+            User user = all.next();
+            if (query.matches(user)) {
+                results.add(user);
+            }
+        }
+        return results;
+    }
+
+    private UserQuery emailQuery() {
+        return new UserQuery("user" + ThreadLocalRandom.current().nextInt(users) + "@example.com", null, null, null, null);
+    }
+
+    private UserQuery nameQuery() {
+        return new UserQuery(null, "name" + ThreadLocalRandom.current().nextInt(DISTINCT_NAMES), null, null, null);
+    }
+
+    // a single age, so matches are spread evenly over the store (one user in 80)
+    private UserQuery ageQuery() {
+        int age = 18 + ThreadLocalRandom.current().nextInt(80);
+        return new UserQuery(null, null, null, age, age);
+    }
+}
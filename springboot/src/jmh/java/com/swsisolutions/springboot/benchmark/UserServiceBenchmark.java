@@ -0,0 +1,110 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserService;
+
+// Throughput of the UserService operations at 1, 8 and 32 threads.
+// get/update run in throughput mode against a prefilled store. create/delete change the store size,
+// so they run as single-shot batches of BATCH calls per thread: ops/s = BATCH * threads / score.
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public abstract class UserServiceBenchmark {
+
+    static final int PREFILL = 100_000;
+    static final int BATCH = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        UserService userService;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            userService = new UserService();
+            for (int i = 0; i < PREFILL; i++) {
+                userService.createUser(newUser(i));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PendingDeletes {
+        long[] ids = new long[BATCH];
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(Store store) {
+            for (int i = 0; i < BATCH; i++) {
+                ids[i] = store.userService.createUser(newUser(i)).getId();
+            }
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public User get(Store store) {
+        return store.userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public User update(Store store) {
+        return store.userService.updateUser(randomId(), newUser(0));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public User create(Store store) {
+        return store.userService.createUser(newUser(0));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public boolean delete(Store store, PendingDeletes pending) {
+        return store.userService.deleteUser(pending.ids[pending.next++]);
+    }
+
+    static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, PREFILL + 1);
+    }
+
+    static User newUser(int i) {
+        return new User(null, "user" + i, "user" + i + "@example.com", 18 + (i % 60));
+    }
+
+    @Threads(1)
+    public static class OneThread extends UserServiceBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends UserServiceBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends UserServiceBenchmark {
+    }
+}
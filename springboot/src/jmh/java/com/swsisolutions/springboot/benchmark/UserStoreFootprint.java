@@ -0,0 +1,60 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.function.Supplier;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.store.ColumnarUserStore;
+import com.swsisolutions.springboot.store.ConcurrentMapUserStore;
+import com.swsisolutions.springboot.store.UserStore;
+
+// Heap footprint of each UserStore engine at 1M and 10M users.
+// Run with ./gradlew userStoreFootprint (see build.gradle); needs a large heap for the 10M map store.
+// JOL walks the object graph for an exact retained size; it is skipped above JOL_LIMIT users because the walk
+// itself needs several GB at that size, and the used-heap delta after a full GC is reported instead.
+public class UserStoreFootprint {
+
+    private static final int JOL_LIMIT = 1_000_000;
+    private static final int DISTINCT_NAMES = 5_000;
+
+    public static void main(String[] args) {
+        int[] sizes = (args.length > 0) ? parse(args) : new int[] {1_000_000, 10_000_000};
+        System.out.printf("%-10s %12s %16s %16s %12s%n", "engine", "users", "jol bytes", "heap delta", "bytes/user");
+        for (int users : sizes) {
+            measure("map", users, ConcurrentMapUserStore::new);
+            measure("columnar", users, () -> new ColumnarUserStore(users));
+        }
+    }
+
+    private static void measure(String engine, int users, Supplier<UserStore> factory) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedAfterGc(memory);
+        UserStore store = factory.get();
+        for (int i = 1; i <= users; i++) {
+            store.put(new User((long) i, "name" + (i % DISTINCT_NAMES), "user" + i + "@example.com", 18 + (i % 80)));
+        }
+        long heapDelta = usedAfterGc(memory) - before;
+        long jolBytes = (users <= JOL_LIMIT) ? GraphLayout.parseInstance(store).totalSize() : -1;
+        long perUser = ((jolBytes > 0) ? jolBytes : heapDelta) / users;
+        System.out.printf("%-10s %12d %16s %16d %12d%n", engine, store.size(),
+                (jolBytes > 0) ? Long.toString(jolBytes) : "-", heapDelta, perUser);
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static int[] parse(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+}
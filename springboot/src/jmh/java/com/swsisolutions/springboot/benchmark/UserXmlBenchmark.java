@@ -0,0 +1,97 @@
+package com.swsisolutions.springboot.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.xmlbased.UserXmlCodec;
+
+// Reading and writing a <Users> batch with the streaming UserXmlCodec against Jackson XML databinding of the
+// whole document. Allocation per batch: ./gradlew jmh -Pjmh.includes=UserXmlBenchmark -Pjmh.profilers=gc
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserXmlBenchmark {
+
+    @Param({"1000", "100000"})
+    int users;
+
+    UserXmlCodec codec;
+    XmlMapper xmlMapper;
+    List<User> batch;
+    byte[] document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        codec = new UserXmlCodec();
+        xmlMapper = new XmlMapper();
+        batch = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            batch.add(new User((long) i, "User " + i, "user" + i + "@example.com", 18 + i % 60));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, batch.iterator());
+        document = out.toByteArray();
+    }
+
+    @Benchmark
+    public void readStax(Blackhole blackhole) throws Exception {
+        try (UserXmlCodec.UserReader reader = codec.reader(new ByteArrayInputStream(document))) {
+            User user;
+            while ((user = reader.next()) != null) {
+                blackhole.consume(user);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<User> readJackson() throws Exception {
+        return xmlMapper.readValue(document, Users.class).users;
+    }
+
+    @Benchmark
+    public byte[] writeStax() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length);
+        codec.write(out, batch.iterator());
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeJackson() throws Exception {
+        Users wrapper = new Users();
+        wrapper.users = batch;
+        return xmlMapper.writeValueAsBytes(wrapper);
+    }
+
+    // what Jackson needs to bind the same <Users><User>...</User></Users> document
+    @JacksonXmlRootElement(localName = "Users")
+    public static class Users {
+        @JacksonXmlElementWrapper(useWrapping = false)
+        @JacksonXmlProperty(localName = "User")
+        public List<User> users;
+    }
+}
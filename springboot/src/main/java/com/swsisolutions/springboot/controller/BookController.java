@@ -0,0 +1,92 @@
+package com.swsisolutions.springboot.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.swsisolutions.springboot.dto.BookImportResult;
+import com.swsisolutions.springboot.dto.BookResponse;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.services.BookImportService;
+import com.swsisolutions.springboot.services.BookService;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+
+    private final BookService bookService;
+    private final BookImportService bookImportService;
+    // books live in in-memory H2, so ids and versions start over with the process; ETags are scoped to this run
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    public BookController(BookService bookService, BookImportService bookImportService) {
+        this.bookService = bookService;
+        this.bookImportService = bookImportService;
+    }
+
+    // GET one page, ordered by id
+    @GetMapping
+    public ResponseEntity<List<Book>> getBooks(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookService.findPage(page, size));
+    }
+
+    // GET one page of BookResponse rows, ordered by id, optionally for one author
+    @GetMapping("/summaries")
+    public ResponseEntity<List<BookResponse>> getBookSummaries(
+            @RequestParam(value = "author", required = false) String author,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookService.findSummaries(author, page, size));
+    }
+
+    // GET by title/author words, e.g. /api/books/search?q=tolk*+rings (all terms must match, '*' = prefix)
+    @GetMapping("/search")
+    public ResponseEntity<List<Book>> searchBooks(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(bookService.search(query, limit));
+    }
+
+    // GET by ID; served from the books cache, so a matching If-None-Match gets a 304 without a query
+    @GetMapping("/{id}")
+    public ResponseEntity<Book> getBookById(@PathVariable("id") Long id) {
+        Book book = bookService.findById(id);
+        return ResponseEntity.ok().eTag(etagPrefix + book.getVersion()).body(book);
+    }
+
+    // POST (Create)
+    @PostMapping
+    public ResponseEntity<Book> createBook(@RequestBody Book book) {
+        return ResponseEntity.ok(bookService.create(book));
+    }
+
+    // PUT (Update)
+    @PutMapping("/{id}")
+    public ResponseEntity<Book> updateBook(@PathVariable("id") Long id, @RequestBody Book book) {
+        return ResponseEntity.ok(bookService.update(id, book));
+    }
+
+    // DELETE
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBook(@PathVariable("id") Long id) {
+        bookService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // POST a large catalogue as CSV (title,author,published) or NDJSON; the body is streamed, never buffered
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BookImportResult> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        BookImportService.Format format = MediaType.APPLICATION_NDJSON.includes(contentType)
+                ? BookImportService.Format.NDJSON
+                : BookImportService.Format.CSV;
+        return ResponseEntity.ok(bookImportService.importBooks(body, format));
+    }
+}
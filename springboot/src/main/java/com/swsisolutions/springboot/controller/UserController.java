@@ -1,22 +1,64 @@
 package com.swsisolutions.springboot.controller;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.swsisolutions.springboot.dto.UserPage;
+import com.swsisolutions.springboot.exceptions.ErrorResponse.FieldViolation;
 import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserQuery;
 import com.swsisolutions.springboot.services.UserService;
+import com.swsisolutions.springboot.services.UserSort;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    // users stored per store operation by POST /batch
+    private static final int BATCH_CHUNK = 1000;
+    // violations a batch report keeps per rejected item and in total; the rest are only counted
+    private static final int MAX_ITEM_VIOLATIONS = 10;
+    private static final int MAX_BATCH_VIOLATIONS = 1000;
+
     private final UserService userService;
-    public UserController(UserService userService) {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+    private final ObjectReader userReader;
+    private final Validator validator;
+    // user versions live in memory and start over with the process, so ETags are scoped to this run
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    public UserController(UserService userService, ObjectMapper objectMapper, Validator validator) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        // let Tomcat's response buffer decide when to flush instead of flushing after every user
+        this.userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.userReader = objectMapper.readerFor(User.class);
+        this.validator = validator;
     }
 
     // GET all
@@ -25,11 +67,53 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
-    // GET by ID
+    // GET all as NDJSON (Accept: application/x-ndjson), one user per line
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsersNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamUsers(false));
+    }
+
+    // GET all as a chunked JSON array (/api/users?stream=true)
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamUsersJsonArray() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamUsers(true));
+    }
+
+    // GET one page, e.g. /api/users?limit=50&sort=name&direction=desc&cursor=<nextCursor of the previous page>
+    @GetMapping(params = "limit")
+    public ResponseEntity<UserPage> getUsersPage(
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        return ResponseEntity.ok(userService.getUsers(cursor, limit, UserSort.from(sort), descending));
+    }
+
+    // GET by secondary index, e.g. /api/users/search?email=a@b.com or ?namePrefix=Jo&minAge=18&maxAge=30
+    @GetMapping("/search")
+    public ResponseEntity<List<User>> searchUsers(
+            @RequestParam(value = "email", required = false) String email,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "namePrefix", required = false) String namePrefix,
+            @RequestParam(value = "minAge", required = false) Integer minAge,
+            @RequestParam(value = "maxAge", required = false) Integer maxAge,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        UserQuery query = new UserQuery(email, name, namePrefix, minAge, maxAge);
+        return ResponseEntity.ok(userService.search(query, limit));
+    }
+
+    // GET by ID; a matching If-None-Match is answered with 304 and the user is never serialized
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable("id") Long id) {
         User user = userService.getUserById(id);
-        return (user != null) ? ResponseEntity.ok(user) : ResponseEntity.notFound().build();
+        return (user != null)
+                ? ResponseEntity.ok().eTag(etagPrefix + user.getVersion()).body(user)
+                : ResponseEntity.notFound().build();
     }
 
     // POST (Create)
@@ -38,6 +122,48 @@ public class UserController {
         return ResponseEntity.ok(userService.createUser(user));
     }
 
+    // POST many users as a JSON array or NDJSON. Items are read one at a time and stored in chunks, so the upload
+    // is never held in memory; the answer is NDJSON with one line per item in upload order, then a summary line.
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> createUsersBatch(InputStream body) throws IOException {
+        BatchReport report = new BatchReport();
+        List<User> chunk = new ArrayList<>(BATCH_CHUNK);
+        int[] chunkIndexes = new int[BATCH_CHUNK];
+        try (MappingIterator<User> items = userReader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                User user;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    user = items.nextValue();
+                } catch (JsonParseException ex) {
+                    // malformed JSON: nothing after this point can be read
+                    report.stop("Malformed JSON at item " + index + ": " + ex.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException ex) {
+                    report.failed(index++, List.of(new FieldViolation(fieldOf(ex), ex.getOriginalMessage())));
+                    continue;
+                }
+                List<FieldViolation> violations = validate(user);
+                if (!violations.isEmpty()) {
+                    report.failed(index++, violations);
+                    continue;
+                }
+                chunkIndexes[chunk.size()] = index++;
+                chunk.add(user);
+                if (chunk.size() == BATCH_CHUNK) {
+                    storeChunk(chunk, chunkIndexes, report);
+                }
+            }
+        }
+        storeChunk(chunk, chunkIndexes, report);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(report::write);
+    }
+
     // PUT (Update)
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable("id") Long id, @Valid @RequestBody User user) {
@@ -51,5 +177,135 @@ public class UserController {
         boolean deleted = userService.deleteUser(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
-}
 
+    private void storeChunk(List<User> chunk, int[] chunkIndexes, BatchReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        userService.createUsers(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            report.created(chunkIndexes[i], chunk.get(i).getId());
+        }
+        chunk.clear();
+    }
+
+    private List<FieldViolation> validate(User user) {
+        List<FieldViolation> violations = new ArrayList<>();
+        for (ConstraintViolation<User> violation : validator.validate(user)) {
+            violations.add(new FieldViolation(violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        return violations;
+    }
+
+    private static String fieldOf(JsonMappingException ex) {
+        List<JsonMappingException.Reference> path = ex.getPath();
+        return path.isEmpty() ? null : path.get(path.size() - 1).getFieldName();
+    }
+
+    // Per-item outcome of a batch: the id of every created item or REJECTED, so the report costs 8 bytes per item
+    // until it is written out. Violations are kept only up to MAX_ITEM_VIOLATIONS per item and
+    // MAX_BATCH_VIOLATIONS in all; a flood of bad items past that is reported by index and counted.
+    private final class BatchReport {
+        private static final long REJECTED = -1;
+
+        private long[] ids = new long[BATCH_CHUNK];
+        private int items;
+        private long created;
+        private long failed;
+        private final Map<Integer, List<FieldViolation>> violations = new HashMap<>();
+        private int keptViolations;
+        private long omittedViolations;
+        private String error;
+
+        void created(int index, long id) {
+            grow(index);
+            ids[index] = id;
+            created++;
+        }
+
+        void failed(int index, List<FieldViolation> itemViolations) {
+            grow(index);
+            ids[index] = REJECTED;
+            failed++;
+            int keep = Math.min(itemViolations.size(),
+                    Math.min(MAX_ITEM_VIOLATIONS, MAX_BATCH_VIOLATIONS - keptViolations));
+            if (keep > 0) {
+                violations.put(index, List.copyOf(itemViolations.subList(0, keep)));
+                keptViolations += keep;
+            }
+            omittedViolations += itemViolations.size() - keep;
+        }
+
+        void stop(String error) {
+            this.error = error;
+        }
+
+        private void grow(int index) {
+            if (index >= ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(index + 1, ids.length * 2));
+            }
+            items = Math.max(items, index + 1);
+        }
+
+        void write(OutputStream out) throws IOException {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                for (int index = 0; index < items; index++) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("index", index);
+                    if (ids[index] != REJECTED) {
+                        generator.writeStringField("status", "created");
+                        generator.writeNumberField("id", ids[index]);
+                    } else {
+                        generator.writeStringField("status", "invalid");
+                        generator.writeArrayFieldStart("errors");
+                        for (FieldViolation violation : violations.getOrDefault(index, List.of())) {
+                            generator.writeStartObject();
+                            generator.writeStringField("field", violation.getField());
+                            generator.writeStringField("message", violation.getMessage());
+                            generator.writeEndObject();
+                        }
+                        generator.writeEndArray();
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+                generator.writeStartObject();
+                generator.writeNumberField("created", created);
+                generator.writeNumberField("failed", failed);
+                if (omittedViolations > 0) {
+                    generator.writeNumberField("omittedErrors", omittedViolations);
+                }
+                if (error != null) {
+                    generator.writeStringField("error", error);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    // Walks the store and serializes each user straight to the response, so nothing is buffered per request
+    private StreamingResponseBody streamUsers(boolean asArray) {
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                if (asArray) {
+                    generator.writeStartArray();
+                }
+                Iterator<User> users = userService.iterateUsers();
+                while (users.hasNext()) {
+                    userWriter.writeValue(generator, users.next());
+                    if (!asArray) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                if (asArray) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+    }
+}
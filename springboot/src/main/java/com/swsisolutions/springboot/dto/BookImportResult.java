@@ -0,0 +1,30 @@
+package com.swsisolutions.springboot.dto;
+
+import java.util.List;
+
+public class BookImportResult {
+    private final long imported;
+    private final long failed;
+    private final List<String> errors;
+    private final long elapsedMillis;
+
+    public BookImportResult(long imported, long failed, List<String> errors, long elapsedMillis) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // getters
+    public long getImported() { return imported; }
+    public long getFailed() { return failed; }
+
+    // the first few rejected rows, with their line numbers
+    public List<String> getErrors() { return errors; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public double getRowsPerSecond() {
+        return (elapsedMillis > 0) ? imported * 1000.0 / elapsedMillis : imported;
+    }
+}
@@ -9,6 +9,17 @@ public class BookResponse {
     private String author;
     private LocalDate published;
 
+    // constructors
+    public BookResponse() {}
+
+    // used by the JPQL constructor expressions in BookRepository
+    public BookResponse(Long id, String title, String author, LocalDate published) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.published = published;
+    }
+
     // getters & setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,26 @@
+package com.swsisolutions.springboot.dto;
+
+import java.util.List;
+
+public class UserImportResult {
+    private final long imported;
+    private final long failed;
+    private final List<String> errors;
+    private final long elapsedMillis;
+
+    public UserImportResult(long imported, long failed, List<String> errors, long elapsedMillis) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // getters
+    public long getImported() { return imported; }
+    public long getFailed() { return failed; }
+
+    // the first few rejected users, by position in the upload
+    public List<String> getErrors() { return errors; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,21 @@
+package com.swsisolutions.springboot.dto;
+
+import java.util.List;
+
+import com.swsisolutions.springboot.model.User;
+
+public class UserPage {
+    private final List<User> items;
+    private final String nextCursor;
+
+    public UserPage(List<User> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // getters
+    public List<User> getItems() { return items; }
+
+    // null when there are no more users after this page
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,14 @@
+package com.swsisolutions.springboot.exceptions;
+
+
+// Thrown for input the client got wrong (an unknown sort, a malformed cursor, an empty search), mapped to 400.
+// Stackless like ResourceNotFoundException: the cause, when there is one, is enough to tell what was rejected.
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message, null, false, false);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
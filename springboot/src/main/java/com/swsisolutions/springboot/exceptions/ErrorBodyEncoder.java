@@ -0,0 +1,108 @@
+package com.swsisolutions.springboot.exceptions;
+
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Writes ErrorResponse JSON by hand for error-storm mode. The body has the same shape Jackson produces, but the
+// constant part of each (status, error) pair is built once, the timestamp is only re-formatted once per second,
+// and nothing goes through the ObjectMapper.
+final class ErrorBodyEncoder {
+
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    private final ZoneId zone;
+    private final ConcurrentMap<String, String> heads = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, "");
+
+    ErrorBodyEncoder() {
+        this(ZoneId.systemDefault());
+    }
+
+    ErrorBodyEncoder(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    byte[] encode(int status, String error, String message, String path, List<ErrorResponse.FieldViolation> errors) {
+        StringBuilder json = buffers.get();
+        json.setLength(0);
+        json.append("{\"timestamp\":\"").append(timestamp()).append('"');
+        json.append(heads.computeIfAbsent(status + error, key -> head(status, error)));
+        json.append("\"message\":");
+        string(json, message);
+        json.append(",\"path\":");
+        string(json, path);
+        if (errors != null) {
+            json.append(",\"errors\":[");
+            for (int i = 0; i < errors.size(); i++) {
+                ErrorResponse.FieldViolation violation = errors.get(i);
+                json.append(i == 0 ? "{\"field\":" : ",{\"field\":");
+                string(json, violation.getField());
+                json.append(",\"message\":");
+                string(json, violation.getMessage());
+                json.append('}');
+            }
+            json.append(']');
+        }
+        json.append('}');
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        if (json.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return body;
+    }
+
+    private static String head(int status, String error) {
+        StringBuilder head = new StringBuilder(",\"status\":").append(status).append(",\"error\":");
+        string(head, error);
+        return head.append(',').toString();
+    }
+
+    // ISO_LOCAL_DATE_TIME to the second, which is what Jackson writes for LocalDateTime minus the fraction
+    private String timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp current = timestamp;
+        if (current.second != second) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone);
+            current = new Timestamp(second, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time));
+            timestamp = current;
+        }
+        return current.text;
+    }
+
+    private static void string(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private record Timestamp(long second, String text) {
+    }
+}
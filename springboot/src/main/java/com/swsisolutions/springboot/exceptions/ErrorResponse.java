@@ -2,6 +2,9 @@ package com.swsisolutions.springboot.exceptions;
 
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 public class ErrorResponse {
     private LocalDateTime timestamp;
@@ -9,6 +12,7 @@ public class ErrorResponse {
     private String error;
     private String message;
     private String path;
+    private List<FieldViolation> errors;
 
     public ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
         this.timestamp = timestamp;
@@ -33,5 +37,23 @@ public class ErrorResponse {
 
     public String getPath() { return path; }
     public void setPath(String path) { this.path = path; }
+
+    // only present for validation errors
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<FieldViolation> getErrors() { return errors; }
+    public void setErrors(List<FieldViolation> errors) { this.errors = errors; }
+
+    public static class FieldViolation {
+        private final String field;
+        private final String message;
+
+        public FieldViolation(String field, String message) {
+            this.field = field;
+            this.message = message;
+        }
+
+        public String getField() { return field; }
+        public String getMessage() { return message; }
+    }
 }
 
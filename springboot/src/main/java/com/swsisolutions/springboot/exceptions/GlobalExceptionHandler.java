@@ -1,14 +1,23 @@
 package com.swsisolutions.springboot.exceptions;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
@@ -16,57 +25,97 @@ import java.time.LocalDateTime;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+    // one counter per exception type, so a flood of errors doesn't go through the registry lookup every time
+    private final ConcurrentMap<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+    // error-storm mode: hand-encoded bodies instead of ErrorResponse + Jackson, timestamps to the second
+    private final boolean stormMode;
+    private final ErrorBodyEncoder encoder = new ErrorBodyEncoder();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry,
+                                  @Value("${app.errors.storm-mode:false}") boolean stormMode) {
+        this.meterRegistry = meterRegistry;
+        this.stormMode = stormMode;
+    }
+
     // Handle validation errors (e.g. @Valid failures)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationException(
             MethodArgumentNotValidException ex, WebRequest request) {
 
-        Map<String, String> validationErrors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors().forEach(error ->
-                validationErrors.put(error.getField(), error.getDefaultMessage()));
+        List<FieldError> fieldErrors = ex.getBindingResult().getFieldErrors();
+        List<ErrorResponse.FieldViolation> violations = new ArrayList<>(fieldErrors.size());
+        for (FieldError error : fieldErrors) {
+            violations.add(new ErrorResponse.FieldViolation(error.getField(), error.getDefaultMessage()));
+        }
 
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.BAD_REQUEST.value(),
-                "Validation Error",
-                validationErrors.toString(),
-                request.getDescription(false)
-        );
+        return respond(ex, HttpStatus.BAD_REQUEST, "Validation Error", "Validation failed", violations, request);
+    }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    // Handle bad request parameters (e.g. an unknown sort or a malformed cursor)
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Object> handleBadRequestException(
+            BadRequestException ex, WebRequest request) {
+
+        return respond(ex, HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), null, request);
+    }
+
+    // Handle parameters that don't convert to the declared type (e.g. ?limit=abc)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleTypeMismatch(
+            MethodArgumentTypeMismatchException ex, WebRequest request) {
+
+        String message = "Invalid value for " + ex.getName() + ": " + ex.getValue();
+        return respond(ex, HttpStatus.BAD_REQUEST, "Bad Request", message, null, request);
+    }
+
+    // Handle concurrent updates of the same versioned entity
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        return respond(ex, HttpStatus.CONFLICT, "Conflict", "The resource was modified concurrently, retry the request", null, request);
     }
 
     // Handle generic runtime exceptions
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponse> handleRuntimeException(
+    public ResponseEntity<Object> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
 
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                ex.getMessage(),
-                request.getDescription(false)
-        );
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return respond(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", ex.getMessage(), null, request);
     }
 
     // Handle any custom not found exception
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleNotFoundException(
+    public ResponseEntity<Object> handleNotFoundException(
             ResourceNotFoundException ex, WebRequest request) {
 
+        return respond(ex, HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), null, request);
+    }
+
+    private ResponseEntity<Object> respond(Exception ex, HttpStatus status, String error, String message,
+                                           List<ErrorResponse.FieldViolation> violations, WebRequest request) {
+        counters.computeIfAbsent(ex.getClass(), type -> Counter.builder("app.errors")
+                .tag("exception", type.getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)).increment();
+
+        String path = request.getDescription(false);
+        if (stormMode) {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(encoder.encode(status.value(), error, message, path, violations));
+        }
+
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
-                HttpStatus.NOT_FOUND.value(),
-                "Not Found",
-                ex.getMessage(),
-                request.getDescription(false)
+                status.value(),
+                error,
+                message,
+                path
         );
+        errorResponse.setErrors(violations);
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(errorResponse, status);
     }
 }
-
-
@@ -1,9 +1,11 @@
 package com.swsisolutions.springboot.exceptions;
 
 
+// Thrown for ordinary "no such id" lookups, so it carries no stack trace: filling one in is most of the cost
+// of the exception, and floods of 404s from misbehaving clients would pay it on every request.
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
 
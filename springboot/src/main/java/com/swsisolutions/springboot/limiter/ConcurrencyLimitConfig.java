@@ -0,0 +1,34 @@
+package com.swsisolutions.springboot.limiter;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Off unless app.limiter.enabled=true; see ConcurrencyLimitProperties for the rest
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true", matchIfMissing = false)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public GradientConcurrencyLimit gradientConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        return new GradientConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getSmoothing(), properties.getTolerance());
+    }
+
+    // first in the chain, so a rejected request costs as little as possible
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(GradientConcurrencyLimit limit,
+            ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit, properties, meterRegistry));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
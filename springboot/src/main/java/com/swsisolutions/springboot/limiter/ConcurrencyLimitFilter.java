@@ -0,0 +1,83 @@
+package com.swsisolutions.springboot.limiter;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Sheds load above the current GradientConcurrencyLimit: a request that finds every permit taken is answered
+// 503 with Retry-After straight away instead of waiting in Tomcat's queue. Accepted requests report their
+// latency back to the limit. Async requests (the streaming endpoints) keep their permit until they complete
+// but are not sampled, since their duration says nothing about queueing.
+// Metrics: app.limiter.limit, app.limiter.inflight, app.limiter.rejected.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final GradientConcurrencyLimit limit;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(GradientConcurrencyLimit limit, ConcurrencyLimitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.rejected = Counter.builder("app.limiter.rejected").register(meterRegistry);
+        Gauge.builder("app.limiter.limit", limit, GradientConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("app.limiter.inflight", limit, GradientConcurrencyLimit::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            }
+        } finally {
+            if (!async) {
+                limit.release(System.nanoTime() - started);
+            }
+        }
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(-1);
+        }
+
+        // onComplete follows a timeout or an error as well
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
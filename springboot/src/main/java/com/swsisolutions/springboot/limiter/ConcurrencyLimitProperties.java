@@ -0,0 +1,46 @@
+package com.swsisolutions.springboot.limiter;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// app.limiter.* - adaptive concurrency limit in front of the user and hello endpoints
+@ConfigurationProperties(prefix = "app.limiter")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = false;
+    // paths the limit applies to, as servlet url patterns
+    private List<String> urlPatterns = List.of("/", "/api/users", "/api/users/*");
+    private int initialLimit = 20;
+    private int minLimit = 5;
+    private int maxLimit = 1000;
+    // how far each window moves the limit towards its new estimate
+    private double smoothing = 0.2;
+    // latency may reach tolerance x baseline before the limit shrinks
+    private double tolerance = 1.5;
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<String> getUrlPatterns() { return urlPatterns; }
+    public void setUrlPatterns(List<String> urlPatterns) { this.urlPatterns = urlPatterns; }
+
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+    public double getSmoothing() { return smoothing; }
+    public void setSmoothing(double smoothing) { this.smoothing = smoothing; }
+
+    public double getTolerance() { return tolerance; }
+    public void setTolerance(double tolerance) { this.tolerance = tolerance; }
+
+    public Duration getRetryAfter() { return retryAfter; }
+    public void setRetryAfter(Duration retryAfter) { this.retryAfter = retryAfter; }
+}
@@ -0,0 +1,117 @@
+package com.swsisolutions.springboot.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrency limit estimated from latency, after Netflix's Gradient2 with a Vegas-style baseline: latencies are
+// averaged per window and compared with the lowest single latency seen recently (the no-queueing time). While
+// the window average stays within tolerance of that baseline the limit grows by about sqrt(limit) per window;
+// once requests queue the ratio drops below 1 and the limit shrinks with it (to half at most per window).
+// Windows where fewer than half the permits were in use say nothing about the limit and leave it alone.
+// Samples go into the current window without a lock; the thread whose sample fills it swaps in the next window
+// and alone moves the limit.
+public class GradientConcurrencyLimit {
+
+    // a window closes after this many samples, and not before MIN_WINDOW_NANOS
+    private static final int WINDOW_SAMPLES = 10;
+    private static final long MIN_WINDOW_NANOS = 100_000_000L;
+    // the baseline restarts from the current window every so many windows, so it can follow a backend that got
+    // slower for good
+    private static final int BASELINE_RESET_WINDOWS = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window(System.nanoTime()));
+    private volatile int limit;
+
+    // guarded by this; only touched when a window closes
+    private double estimatedLimit;
+    private double baselineRtt;
+    private int windows;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Gives the permit back; rttNanos < 0 releases without a sample (e.g. for async requests)
+    public void release(long rttNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        if (rttNanos >= 0) {
+            sample(rttNanos, inFlightAtRelease);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void sample(long rttNanos, int inFlightAtRelease) {
+        Window current = window.get();
+        current.rttSum.add(rttNanos);
+        current.minRtt.accumulateAndGet(rttNanos, Math::min);
+        current.maxInFlight.accumulateAndGet(inFlightAtRelease, Math::max);
+        int samples = current.samples.incrementAndGet();
+        long now = System.nanoTime();
+        if (samples < WINDOW_SAMPLES || now - current.start < MIN_WINDOW_NANOS) {
+            return;
+        }
+        // one thread wins the swap; a sample racing with it may land in the closed window and be lost
+        if (window.compareAndSet(current, new Window(now))) {
+            close(current);
+        }
+    }
+
+    // Runs once per window (at most every MIN_WINDOW_NANOS), so the lock is never contended
+    private synchronized void close(Window closed) {
+        double shortRtt = (double) closed.rttSum.sum() / closed.samples.get();
+        long minRtt = closed.minRtt.get();
+        int maxInFlight = closed.maxInFlight.get();
+
+        baselineRtt = (windows++ % BASELINE_RESET_WINDOWS == 0) ? minRtt : Math.min(baselineRtt, minRtt);
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - smoothing) + target * smoothing));
+        limit = (int) estimatedLimit;
+    }
+
+    private static final class Window {
+        final long start;
+        final LongAdder rttSum = new LongAdder();
+        final AtomicInteger samples = new AtomicInteger();
+        final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+}
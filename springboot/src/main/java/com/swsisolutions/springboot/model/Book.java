@@ -1,12 +1,17 @@
 package com.swsisolutions.springboot.model; 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "books")
 public class Book {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // a pooled sequence lets Hibernate assign ids without a round trip per row, so inserts can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -16,6 +21,11 @@ public class Book {
 
     private LocalDate published;
 
+    // optimistic-lock version, incremented by Hibernate on every update; exposed only through the ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     // constructors
     public Book() {}
     public Book(String title, String author, LocalDate published) {
@@ -36,5 +46,8 @@ public class Book {
 
     public LocalDate getPublished() { return published; }
     public void setPublished(LocalDate published) { this.published = published; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
 
@@ -1,5 +1,7 @@
 package com.swsisolutions.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -18,6 +20,10 @@ public class User {
     @Positive(message = "Age must be positive")
     private int age;
 
+    // bumped by the user store on every write; exposed only through the ETag
+    @JsonIgnore
+    private int version;
+
     // Constructors
     public User() {}
     public User(Long id, String name, String email, int age) {
@@ -36,5 +42,7 @@ public class User {
     public void setEmail(String email) { this.email = email; }
     public int getAge() { return age; }
     public void setAge(int age) { this.age = age; }
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
 }
 
@@ -1,11 +1,23 @@
 package com.swsisolutions.springboot.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.swsisolutions.springboot.dto.BookResponse;
 import com.swsisolutions.springboot.model.Book;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
-    // add query methods if needed
-}
 
+    // Read-only listings select straight into the DTO: no managed entities, no dirty-checking snapshots,
+    // and a Slice skips the count query a Page would need
+    @Query("select new com.swsisolutions.springboot.dto.BookResponse(b.id, b.title, b.author, b.published) from Book b")
+    Slice<BookResponse> findAllSummaries(Pageable pageable);
+
+    @Query("select new com.swsisolutions.springboot.dto.BookResponse(b.id, b.title, b.author, b.published) "
+            + "from Book b where b.author = :author")
+    Slice<BookResponse> findSummariesByAuthor(@Param("author") String author, Pageable pageable);
+}
@@ -0,0 +1,174 @@
+package com.swsisolutions.springboot.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.swsisolutions.springboot.dto.BookImportResult;
+import com.swsisolutions.springboot.model.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Streams books from CSV (title,author,published) or NDJSON into the database.
+// Rows are read one line at a time and committed in chunks; inside a chunk the persistence context is flushed
+// and cleared every JDBC batch, so memory stays bounded by the chunk size whatever the size of the upload.
+@Service
+public class BookImportService {
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final BookSearchIndex searchIndex;
+    private final ObjectReader bookReader;
+    private final int batchSize;
+    private final int chunkSize;
+
+    public BookImportService(TransactionTemplate transactionTemplate, BookSearchIndex searchIndex, ObjectMapper objectMapper,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                             @Value("${app.books.import.chunk-size:10000}") int chunkSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.searchIndex = searchIndex;
+        this.bookReader = objectMapper.readerFor(Book.class);
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // Cached listing pages are stale after an import; single books are unaffected since every row is new
+    @CacheEvict(cacheNames = BookService.BOOK_PAGES_CACHE, allEntries = true)
+    public BookImportResult importBooks(InputStream input, Format format) throws IOException {
+        long started = System.nanoTime();
+        long imported = 0;
+        long failed = 0;
+        List<String> errors = new ArrayList<>();
+        List<Book> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isHeader(line))) {
+                continue;
+            }
+            try {
+                chunk.add((format == Format.CSV) ? parseCsv(line) : parseJson(line));
+            } catch (IllegalArgumentException ex) {
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("line " + lineNumber + ": " + ex.getMessage());
+                }
+            }
+            if (chunk.size() == chunkSize) {
+                imported += persist(chunk);
+            }
+        }
+        imported += persist(chunk);
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new BookImportResult(imported, failed, errors, elapsedMillis);
+    }
+
+    private int persist(List<Book> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                entityManager.persist(chunk.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        // only committed rows are indexed
+        searchIndex.addAll(chunk);
+        int persisted = chunk.size();
+        chunk.clear();
+        return persisted;
+    }
+
+    private Book parseJson(String line) {
+        try {
+            Book book = bookReader.readValue(line);
+            book.setId(null);
+            book.setVersion(null);
+            return requireTitle(book);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex.getOriginalMessage());
+        }
+    }
+
+    // title,author,published - fields may be double-quoted, with "" for a literal quote
+    private static Book parseCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        if (fields.size() > 3) {
+            throw new IllegalArgumentException("expected title,author,published but got " + fields.size() + " fields");
+        }
+        String author = (fields.size() > 1 && !fields.get(1).isBlank()) ? fields.get(1).trim() : null;
+        LocalDate published = null;
+        if (fields.size() > 2 && !fields.get(2).isBlank()) {
+            try {
+                published = LocalDate.parse(fields.get(2).trim());
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("published is not an ISO date: " + fields.get(2));
+            }
+        }
+        return requireTitle(new Book(fields.get(0).trim(), author, published));
+    }
+
+    private static Book requireTitle(Book book) {
+        if (book.getTitle() == null || book.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        return book;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.replace(" ", "").equalsIgnoreCase("title,author,published");
+    }
+}
@@ -0,0 +1,261 @@
+package com.swsisolutions.springboot.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.repository.BookRepository;
+
+// In-process inverted index over Book.title and Book.author: term -> sorted array of book ids.
+// Queries are whitespace-separated terms that must all match (AND); a term ending in '*' matches every indexed
+// term with that prefix. BookService and BookImportService keep it in step with committed writes.
+@Component
+public class BookSearchIndex {
+
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final BookRepository bookRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+            Page<Book> page;
+            do {
+                page = bookRepository.findAll(pageable);
+                page.forEach(this::addLocked);
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Book book) {
+        lock.writeLock().lock();
+        try {
+            addLocked(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            books.forEach(this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // previous is the book as it was indexed, so its terms can be found again
+    public void remove(Book previous) {
+        lock.writeLock().lock();
+        try {
+            for (String term : tokenize(previous)) {
+                Postings postings = terms.get(term);
+                if (postings != null && postings.remove(previous.getId()) && postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replace(Book previous, Book current) {
+        lock.writeLock().lock();
+        try {
+            remove(previous);
+            addLocked(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the books matching every term of the query, ascending, at most limit of them
+    public long[] search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            int before = queryTerms.size();
+            tokenize(word, queryTerms);
+            for (int i = before; i < queryTerms.size(); i++) {
+                // "o'bri*" is o AND bri*: only the last token of a word carries the wildcard
+                prefixes.add(word.endsWith("*") && i == queryTerms.size() - 1);
+            }
+        }
+        List<long[]> matches = new ArrayList<>(queryTerms.size());
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < queryTerms.size(); i++) {
+                long[] ids = prefixes.get(i) ? unionWithPrefix(queryTerms.get(i)) : exact(queryTerms.get(i));
+                if (ids.length == 0) {
+                    return ids;
+                }
+                matches.add(ids);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (matches.isEmpty()) {
+            return new long[0];
+        }
+        // intersect the smallest lists first so the running result shrinks as fast as possible
+        matches.sort((a, b) -> Integer.compare(a.length, b.length));
+        long[] result = matches.get(0);
+        for (int i = 1; i < matches.size() && result.length > 0; i++) {
+            result = intersect(result, matches.get(i));
+        }
+        return (result.length > limit) ? Arrays.copyOf(result, limit) : result;
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Book book) {
+        for (String term : tokenize(book)) {
+            terms.computeIfAbsent(term, key -> new Postings()).add(book.getId());
+        }
+    }
+
+    private long[] exact(String term) {
+        Postings postings = terms.get(term);
+        return (postings != null) ? Arrays.copyOf(postings.ids, postings.size) : new long[0];
+    }
+
+    private long[] unionWithPrefix(String prefix) {
+        NavigableMap<String, Postings> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        int total = 0;
+        for (Postings postings : range.values()) {
+            total += postings.size;
+        }
+        long[] ids = new long[total];
+        int size = 0;
+        for (Postings postings : range.values()) {
+            System.arraycopy(postings.ids, 0, ids, size, postings.size);
+            size += postings.size;
+        }
+        Arrays.sort(ids);
+        // a book can carry several terms with the same prefix
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Distinct lower-case runs of letters and digits in the title and author
+    static List<String> tokenize(Book book) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(book.getTitle(), tokens);
+        tokenize(book.getAuthor(), tokens);
+        return tokens;
+    }
+
+    private static void tokenize(String text, List<String> tokens) {
+        if (text == null) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    // Sorted, duplicate-free ids; appends are O(1) because new books get increasing ids
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
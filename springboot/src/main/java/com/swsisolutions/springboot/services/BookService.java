@@ -1,5 +1,119 @@
 package com.swsisolutions.springboot.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.swsisolutions.springboot.dto.BookResponse;
+import com.swsisolutions.springboot.exceptions.ResourceNotFoundException;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.repository.BookRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Read-through cache in front of BookRepository. Single books are cached by id, listing pages by page/size;
+// any write refreshes the book entry and drops all cached pages, since a write can shift every page.
+// Sizes, TTL and stats are configured with spring.cache.caffeine.spec.
+// Concurrent misses on the same id share one repository load (SingleFlight).
+@Service
 public class BookService {
+    public static final String BOOKS_CACHE = "books";
+    public static final String BOOK_PAGES_CACHE = "bookPages";
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final BookSearchIndex searchIndex;
+    private final SingleFlight<Long, Book> bookLoads;
+
+    public BookService(BookRepository bookRepository, BookSearchIndex searchIndex, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.searchIndex = searchIndex;
+        this.bookLoads = new SingleFlight<>("books", meterRegistry);
+    }
+
+    @Cacheable(cacheNames = BOOKS_CACHE, key = "#id")
+    public Book findById(Long id) {
+        return bookLoads.load(id, () -> bookRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id " + id)));
+    }
+
+    @Cacheable(cacheNames = BOOK_PAGES_CACHE, key = "#page + ':' + #size")
+    public List<Book> findPage(int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), Sort.by("id"));
+        return bookRepository.findAll(pageable).getContent();
+    }
+
+    // DTO listing for read-heavy clients; a read-only transaction also lets Hibernate skip flushing
+    @Transactional(readOnly = true)
+    public List<BookResponse> findSummaries(String author, int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), Sort.by("id"));
+        return (author != null)
+                ? bookRepository.findSummariesByAuthor(author, pageable).getContent()
+                : bookRepository.findAllSummaries(pageable).getContent();
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = BOOKS_CACHE, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = BOOK_PAGES_CACHE, allEntries = true))
+    public Book create(Book book) {
+        book.setId(null);
+        book.setVersion(null);
+        Book saved = bookRepository.save(book);
+        searchIndex.add(saved);
+        return saved;
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = BOOKS_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = BOOK_PAGES_CACHE, allEntries = true))
+    public Book update(Long id, Book book) {
+        Book previous = bookRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id " + id));
+        book.setId(id);
+        // the body's version is ignored; an update committed since the load above fails as a conflict (409)
+        book.setVersion(previous.getVersion());
+        Book saved = bookRepository.save(book);
+        searchIndex.replace(previous, saved);
+        return saved;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BOOKS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = BOOK_PAGES_CACHE, allEntries = true)})
+    public void delete(Long id) {
+        Book previous = bookRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id " + id));
+        bookRepository.delete(previous);
+        searchIndex.remove(previous);
+    }
 
+    // Full-text AND search over title and author through BookSearchIndex, e.g. "tolk* rings"
+    public List<Book> search(String query, int limit) {
+        long[] ids = searchIndex.search(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<Long> boxedIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            boxedIds.add(id);
+        }
+        Map<Long, Book> byId = new HashMap<>();
+        bookRepository.findAllById(boxedIds).forEach(book -> byId.put(book.getId(), book));
+        List<Book> books = new ArrayList<>(ids.length);
+        for (Long id : boxedIds) {
+            Book book = byId.get(id);
+            // skip ids deleted between the index lookup and the load
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
 }
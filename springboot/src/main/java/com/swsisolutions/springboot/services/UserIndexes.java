@@ -0,0 +1,94 @@
+package com.swsisolutions.springboot.services;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserSort.UserKey;
+
+// Indexes over the user store, updated on every write:
+// - one ordered index per UserSort, so a page is a seek plus a walk of `limit` entries whatever the number of users.
+//   The NAME and AGE ones double as the sorted name index and the age range index for search.
+// - a hash index from normalized email to the ids using it.
+class UserIndexes {
+
+    private final Map<UserSort, ConcurrentSkipListSet<UserKey>> ordered = new EnumMap<>(UserSort.class);
+    private final ConcurrentMap<String, Set<Long>> byEmail = new ConcurrentHashMap<>();
+
+    UserIndexes() {
+        for (UserSort sort : UserSort.values()) {
+            ordered.put(sort, new ConcurrentSkipListSet<>(sort.comparator()));
+        }
+    }
+
+    void add(User user) {
+        UserKey key = UserKey.of(user);
+        for (ConcurrentSkipListSet<UserKey> index : ordered.values()) {
+            index.add(key);
+        }
+        if (user.getEmail() != null) {
+            byEmail.compute(UserQuery.normalizeEmail(user.getEmail()), (email, ids) -> {
+                Set<Long> emailIds = (ids != null) ? ids : ConcurrentHashMap.newKeySet();
+                emailIds.add(user.getId());
+                return emailIds;
+            });
+        }
+    }
+
+    void remove(User user) {
+        UserKey key = UserKey.of(user);
+        for (ConcurrentSkipListSet<UserKey> index : ordered.values()) {
+            index.remove(key);
+        }
+        if (user.getEmail() != null) {
+            // drop the entry once its last id is gone; compute keeps this atomic with a concurrent add
+            byEmail.computeIfPresent(UserQuery.normalizeEmail(user.getEmail()), (email, ids) -> {
+                ids.remove(user.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    // UserStore.ChangeListener callback: previous is null on insert, current is null on delete
+    void changed(User previous, User current) {
+        if (previous != null) {
+            remove(previous);
+        }
+        if (current != null) {
+            add(current);
+        }
+    }
+
+    NavigableSet<UserKey> ordered(UserSort sort, boolean descending) {
+        NavigableSet<UserKey> index = ordered.get(sort);
+        return descending ? index.descendingSet() : index;
+    }
+
+    Set<Long> idsByEmail(String email) {
+        Set<Long> ids = byEmail.get(UserQuery.normalizeEmail(email));
+        return (ids != null) ? ids : Collections.emptySet();
+    }
+
+    NavigableSet<UserKey> byName(String name) {
+        return ordered.get(UserSort.NAME).subSet(
+                new UserKey(Long.MIN_VALUE, name, 0), true,
+                new UserKey(Long.MAX_VALUE, name, 0), true);
+    }
+
+    // Every key from the prefix onwards; callers stop at the first name that no longer starts with it
+    NavigableSet<UserKey> fromName(String prefix) {
+        return ordered.get(UserSort.NAME).tailSet(new UserKey(Long.MIN_VALUE, prefix, 0), true);
+    }
+
+    NavigableSet<UserKey> byAgeRange(int minAge, int maxAge) {
+        return ordered.get(UserSort.AGE).subSet(
+                new UserKey(Long.MIN_VALUE, null, minAge), true,
+                new UserKey(Long.MAX_VALUE, null, maxAge), true);
+    }
+}
@@ -0,0 +1,33 @@
+package com.swsisolutions.springboot.services;
+
+import java.util.Locale;
+
+import com.swsisolutions.springboot.model.User;
+
+// Criteria for /api/users/search. All given criteria must match; null means "any".
+public record UserQuery(String email, String name, String namePrefix, Integer minAge, Integer maxAge) {
+
+    public boolean isEmpty() {
+        return email == null && name == null && namePrefix == null && minAge == null && maxAge == null;
+    }
+
+    public boolean matches(User user) {
+        if (email != null && (user.getEmail() == null || !normalizeEmail(email).equals(normalizeEmail(user.getEmail())))) {
+            return false;
+        }
+        if (name != null && !name.equals(user.getName())) {
+            return false;
+        }
+        if (namePrefix != null && (user.getName() == null || !user.getName().startsWith(namePrefix))) {
+            return false;
+        }
+        if (minAge != null && user.getAge() < minAge) {
+            return false;
+        }
+        return maxAge == null || user.getAge() <= maxAge;
+    }
+
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
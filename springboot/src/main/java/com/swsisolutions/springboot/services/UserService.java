@@ -1,46 +1,154 @@
 package com.swsisolutions.springboot.services;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.swsisolutions.springboot.dto.UserPage;
+import com.swsisolutions.springboot.exceptions.BadRequestException;
 import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserSort.UserKey;
+import com.swsisolutions.springboot.store.ConcurrentMapUserStore;
+import com.swsisolutions.springboot.store.UserStore;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class UserService {
-    private final Map<Long, User> users = new HashMap<>();
-    private long nextId = 1;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Requests are served from Tomcat's worker pool, so the store must be safe for concurrent writers.
+    private final UserStore users;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final UserIndexes indexes = new UserIndexes();
+
+    public UserService() {
+        this(new ConcurrentMapUserStore());
+    }
+
+    @Autowired
+    public UserService(UserStore users) {
+        this.users = users;
+        // the store calls back inside its per-id atomic write, which keeps the indexes consistent with it
+        users.setListener(indexes::changed);
+        // a persistent store comes up already holding the users recovered from disk
+        users.iterator().forEachRemaining(indexes::add);
+        nextId.set(users.highestId() + 1);
+    }
 
     public List<User> getAllUsers() {
-        return new ArrayList<>(users.values());
+        List<User> all = new ArrayList<>(users.size());
+        users.iterator().forEachRemaining(all::add);
+        return all;
+    }
+
+    // Weakly consistent walk over the live store without copying it; used by the streaming endpoints
+    public Iterator<User> iterateUsers() {
+        return users.iterator();
     }
 
     public User getUserById(Long id) {
-        return users.get(id);
+        return (id != null) ? users.get(id) : null;
     }
 
     public User createUser(User user) {
-        user.setId(nextId++);
-        users.put(user.getId(), user);
+        user.setId(nextId.getAndIncrement());
+        users.put(user);
         return user;
     }
 
+    // Creates a batch with one block of ids and one store operation; ids follow the order of the list
+    public List<User> createUsers(List<User> batch) {
+        long firstId = nextId.getAndAdd(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(firstId + i);
+        }
+        users.putAll(batch);
+        return batch;
+    }
+
     public User updateUser(Long id, User updatedUser) {
-        if (!users.containsKey(id)) {
+        if (id == null) {
             return null;
         }
         updatedUser.setId(id);
-        users.put(id, updatedUser);
-        return updatedUser;
+        return (users.replace(id, updatedUser) != null) ? updatedUser : null;
     }
 
     public boolean deleteUser(Long id) {
-        return users.remove(id) != null;
+        return id != null && users.remove(id) != null;
     }
 
-//    public Page<User> getUsers(int pageNumber, int pageSize) {
-//        Pageable pageable = PageRequest.of(pageNumber, pageSize);
-//        return userRepository.findAll(pageable);
-//    }
-}
+    // Keyset pagination: seek past the cursor in the ordered index and read at most `limit` users
+    public UserPage getUsers(String cursor, int limit, UserSort sort, boolean descending) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        NavigableSet<UserKey> index = indexes.ordered(sort, descending);
+        if (cursor != null && !cursor.isEmpty()) {
+            index = index.tailSet(sort.keyOf(cursor), false);
+        }
 
+        List<User> items = new ArrayList<>(pageSize);
+        UserKey last = null;
+        for (UserKey key : index) {
+            if (items.size() == pageSize) {
+                return new UserPage(items, sort.cursorOf(last));
+            }
+            User user = users.get(key.id());
+            // the user may have been deleted after the index was read
+            if (user != null) {
+                items.add(user);
+                last = key;
+            }
+        }
+        return new UserPage(items, null);
+    }
+
+    // Answers the query from the most selective index available (email, then name, then age range)
+    // and checks the remaining criteria on each candidate
+    public List<User> search(UserQuery query, int limit) {
+        if (query.isEmpty()) {
+            throw new BadRequestException("At least one search criterion is required");
+        }
+        if (query.minAge() != null && query.maxAge() != null && query.minAge() > query.maxAge()) {
+            throw new BadRequestException("minAge must not be greater than maxAge");
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<User> results = new ArrayList<>();
+
+        if (query.email() != null) {
+            for (Long id : indexes.idsByEmail(query.email())) {
+                if (!collect(users.get(id), query, results, maxResults)) {
+                    break;
+                }
+            }
+        } else if (query.name() != null || query.namePrefix() != null) {
+            boolean exact = query.name() != null;
+            String prefix = query.namePrefix();
+            for (UserKey key : exact ? indexes.byName(query.name()) : indexes.fromName(prefix)) {
+                if (!exact && (key.name() == null || !key.name().startsWith(prefix))) {
+                    break;
+                }
+                if (!collect(users.get(key.id()), query, results, maxResults)) {
+                    break;
+                }
+            }
+        } else {
+            int minAge = (query.minAge() != null) ? query.minAge() : Integer.MIN_VALUE;
+            int maxAge = (query.maxAge() != null) ? query.maxAge() : Integer.MAX_VALUE;
+            for (UserKey key : indexes.byAgeRange(minAge, maxAge)) {
+                if (!collect(users.get(key.id()), query, results, maxResults)) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    // Adds the candidate if it still exists and matches; returns false once the result list is full
+    private static boolean collect(User candidate, UserQuery query, List<User> results, int maxResults) {
+        if (candidate != null && query.matches(candidate)) {
+            results.add(candidate);
+        }
+        return results.size() < maxResults;
+    }
+}
@@ -0,0 +1,72 @@
+package com.swsisolutions.springboot.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+import com.swsisolutions.springboot.exceptions.BadRequestException;
+import com.swsisolutions.springboot.model.User;
+
+// Orderings supported by the paged user listing. Every ordering ends with the id so keys are unique.
+public enum UserSort {
+    ID(Comparator.comparingLong(UserKey::id)),
+    NAME(Comparator.comparing(UserKey::name, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparingLong(UserKey::id)),
+    AGE(Comparator.comparingInt(UserKey::age).thenComparingLong(UserKey::id));
+
+    private final Comparator<UserKey> comparator;
+
+    UserSort(Comparator<UserKey> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<UserKey> comparator() {
+        return comparator;
+    }
+
+    public static UserSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unsupported sort: " + value);
+        }
+    }
+
+    // Opaque keyset cursor: "<sort>:<id>[:<value>]", base64url encoded
+    public String cursorOf(UserKey key) {
+        StringBuilder cursor = new StringBuilder(name()).append(':').append(key.id());
+        if (this == NAME && key.name() != null) {
+            cursor.append(':').append(key.name());
+        } else if (this == AGE) {
+            cursor.append(':').append(key.age());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public UserKey keyOf(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (!name().equals(parts[0])) {
+                throw new BadRequestException("Cursor was issued for sort " + parts[0] + ", not " + name());
+            }
+            long id = Long.parseLong(parts[1]);
+            return switch (this) {
+                case ID -> new UserKey(id, null, 0);
+                case NAME -> new UserKey(id, parts.length > 2 ? parts[2] : null, 0);
+                case AGE -> new UserKey(id, null, Integer.parseInt(parts[2]));
+            };
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    // The part of the index key that a user is ordered by, as a snapshot of the stored user
+    public record UserKey(long id, String name, int age) {
+        static UserKey of(User user) {
+            return new UserKey(user.getId(), user.getName(), user.getAge());
+        }
+    }
+}
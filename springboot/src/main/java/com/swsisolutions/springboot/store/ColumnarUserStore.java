@@ -0,0 +1,253 @@
+package com.swsisolutions.springboot.store;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+import com.swsisolutions.springboot.model.User;
+
+// Compact engine for very large user counts: one primitive array per field (columns), indexed by a slot,
+// an open-addressing id -> slot map and deduplicated UTF-8 strings. There is no per-user object at rest;
+// a User is materialized on every read.
+// Writes take a single write lock. Reads are optimistic and fall back to the read lock when a write overlaps.
+public class ColumnarUserStore implements UserStore {
+
+    private static final int ITERATOR_BATCH = 256;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap slots;
+    private final StringPool strings = new StringPool();
+    private volatile ChangeListener listener = (previous, current) -> { };
+
+    // columns; ids[slot] == 0 marks a free slot
+    private long[] ids;
+    private int[] ages;
+    private int[] versions;
+    private int[] names;
+    private int[] emails;
+    private int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    public ColumnarUserStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        slots = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        ages = new int[capacity];
+        versions = new int[capacity];
+        names = new int[capacity];
+        emails = new int[capacity];
+    }
+
+    @Override
+    public void setListener(ChangeListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public User get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                User user = read(slots.get(id));
+                if (lock.validate(stamp)) {
+                    return user;
+                }
+            } catch (RuntimeException tornRead) {
+                // a writer resized or compacted a column under us; retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(slots.get(id));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public User put(User user) {
+        long stamp = lock.writeLock();
+        try {
+            return putLocked(user);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void putAll(List<User> batch) {
+        long stamp = lock.writeLock();
+        try {
+            for (User user : batch) {
+                putLocked(user);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public User replace(long id, User user) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slots.get(id);
+            if (slot < 0) {
+                return null;
+            }
+            User previous = read(slot);
+            write(slot, user, true);
+            listener.changed(previous, user);
+            return previous;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public User remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slots.remove(id);
+            if (slot < 0) {
+                return null;
+            }
+            User previous = read(slot);
+            release(slot);
+            ids[slot] = 0L;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+            }
+            freeSlots[freeCount++] = slot;
+            listener.changed(previous, null);
+            return previous;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slots.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return new SlotIterator();
+    }
+
+    // Bytes held by the columns, the id map and the string pool (excluding object headers)
+    public long footprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) ids.length * Long.BYTES + (long) ages.length * Integer.BYTES * 4
+                    + slots.footprintBytes() + strings.footprintBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private User putLocked(User user) {
+        int slot = slots.get(user.getId());
+        User previous = null;
+        if (slot >= 0) {
+            previous = read(slot);
+            write(slot, user, true);
+        } else {
+            slot = allocateSlot();
+            slots.put(user.getId(), slot);
+            write(slot, user, false);
+        }
+        listener.changed(previous, user);
+        return previous;
+    }
+
+    private User read(int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        User user = new User(ids[slot], strings.get(names[slot]), strings.get(emails[slot]), ages[slot]);
+        user.setVersion(versions[slot]);
+        return user;
+    }
+
+    // Interns the new strings before releasing the old ones, so an unchanged name keeps its ref.
+    // The slot's version carries over from the user it replaces and is handed back on the written User.
+    private void write(int slot, User user, boolean occupied) {
+        int name = strings.intern(user.getName());
+        int email = strings.intern(user.getEmail());
+        if (occupied) {
+            release(slot);
+        }
+        ids[slot] = user.getId();
+        ages[slot] = user.getAge();
+        versions[slot] = occupied ? versions[slot] + 1 : 1;
+        user.setVersion(versions[slot]);
+        names[slot] = name;
+        emails[slot] = email;
+    }
+
+    private void release(int slot) {
+        strings.release(names[slot]);
+        strings.release(emails[slot]);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            names = Arrays.copyOf(names, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+        }
+        return highWater++;
+    }
+
+    // Walks the slots in batches, holding the read lock only while a batch is materialized
+    private final class SlotIterator implements Iterator<User> {
+        private final ArrayDeque<User> batch = new ArrayDeque<>(ITERATOR_BATCH);
+        private int nextSlot;
+
+        @Override
+        public boolean hasNext() {
+            if (batch.isEmpty()) {
+                fill();
+            }
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public User next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.poll();
+        }
+
+        private void fill() {
+            long stamp = lock.readLock();
+            try {
+                while (nextSlot < highWater && batch.size() < ITERATOR_BATCH) {
+                    int slot = nextSlot++;
+                    if (ids[slot] != 0L) {
+                        batch.add(read(slot));
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.swsisolutions.springboot.store;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.swsisolutions.springboot.model.User;
+
+// Default engine: User objects in a ConcurrentHashMap. Reads are lock-free; writes lock only the bin of their id.
+public class ConcurrentMapUserStore implements UserStore {
+
+    private final ConcurrentMap<Long, User> users = new ConcurrentHashMap<>();
+    private volatile ChangeListener listener = (previous, current) -> { };
+
+    @Override
+    public void setListener(ChangeListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public User get(long id) {
+        return users.get(id);
+    }
+
+    @Override
+    public User put(User user) {
+        User[] previous = new User[1];
+        users.compute(user.getId(), (id, existing) -> {
+            previous[0] = existing;
+            user.setVersion((existing != null) ? existing.getVersion() + 1 : 1);
+            listener.changed(existing, user);
+            return user;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public User replace(long id, User user) {
+        User[] previous = new User[1];
+        users.computeIfPresent(id, (key, existing) -> {
+            previous[0] = existing;
+            user.setVersion(existing.getVersion() + 1);
+            listener.changed(existing, user);
+            return user;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public User remove(long id) {
+        User[] previous = new User[1];
+        users.computeIfPresent(id, (key, existing) -> {
+            previous[0] = existing;
+            listener.changed(existing, null);
+            return null;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return Collections.unmodifiableCollection(users.values()).iterator();
+    }
+}
@@ -0,0 +1,130 @@
+package com.swsisolutions.springboot.store;
+
+// Open-addressing (linear probing) map from a positive long key to an int, with no boxing and no per-entry
+// objects. Key 0 marks an empty cell; removals use backward-shift deletion, so there are no tombstones.
+// Not thread-safe: ColumnarUserStore guards it with its lock. get() never loops more than capacity times,
+// so it can be called optimistically while a writer is resizing.
+class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Returns the value for the key, or -1 if absent
+    int get(long key) {
+        long[] keys = this.keys;
+        int[] values = this.values;
+        int mask = keys.length - 1;
+        int index = index(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long candidate = keys[index];
+            if (candidate == key) {
+                return values[index];
+            }
+            if (candidate == 0L) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    void put(long key, int value) {
+        if (key <= 0L) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        int mask = keys.length - 1;
+        int index = index(key, mask);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    // Returns the removed value, or -1 if absent
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int index = index(key, mask);
+        while (keys[index] != key) {
+            if (keys[index] == 0L) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        int removed = values[index];
+        // shift later entries of the probe chain back into the hole
+        int hole = index;
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            long moving = keys[next];
+            if (moving == 0L) {
+                break;
+            }
+            int home = index(moving, mask);
+            boolean stays = (hole <= next) ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stays) {
+                keys[hole] = moving;
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0L;
+        size--;
+        return removed;
+    }
+
+    long footprintBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0L) {
+                int index = index(key, mask);
+                while (keys[index] != 0L) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Fibonacci hashing spreads the sequential ids handed out by UserService over the whole table
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,302 @@
+package com.swsisolutions.springboot.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.swsisolutions.springboot.model.User;
+
+// Makes any UserStore durable: every change is appended to a UserWriteAheadLog inside the delegate's atomic
+// write, and a compacted snapshot of the whole store is written periodically. A snapshot is taken right after
+// rotating the log, so on restart only that snapshot plus the segments written since need to be replayed.
+// Log records hold the full user state, so replaying a change the snapshot already contains is harmless.
+// A record is logged before the delegate makes its change visible, so writes hold a shared gate that the
+// snapshot closes while it rotates: every record in the segments it deletes is then already in the store.
+public class PersistentUserStore implements UserStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentUserStore.class);
+    private static final int SNAPSHOT_MAGIC = 0x55534e50; // "USNP"
+
+    private final UserStore delegate;
+    private final Path directory;
+    private final UserWriteAheadLog wal;
+    private final AtomicLong highestId = new AtomicLong();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // shared by writers for the delegate's write, exclusive for the snapshot's log rotation
+    private final ReentrantReadWriteLock writeGate = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService snapshotScheduler;
+    private volatile ChangeListener listener = (previous, current) -> { };
+
+    public PersistentUserStore(UserStore delegate, UserPersistenceProperties properties) {
+        this.delegate = delegate;
+        this.directory = Path.of(properties.getDirectory());
+        try {
+            Files.createDirectories(directory);
+            long firstSegment = recover();
+            wal = new UserWriteAheadLog(directory, firstSegment,
+                    (int) properties.getSegmentSize().toBytes(), properties.getSync());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the user store in " + directory, ex);
+        }
+        delegate.setListener(this::logChange);
+
+        long interval = properties.getSnapshotInterval().toMillis();
+        if (interval > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-snapshots");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            snapshotScheduler = null;
+        }
+    }
+
+    @Override
+    public void setListener(ChangeListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public User get(long id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public User put(User user) {
+        User previous;
+        writeGate.readLock().lock();
+        try {
+            previous = delegate.put(user);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+        wal.sync(wal.appendedPosition());
+        return previous;
+    }
+
+    // One log sync for the whole batch instead of one per user
+    @Override
+    public void putAll(List<User> batch) {
+        writeGate.readLock().lock();
+        try {
+            delegate.putAll(batch);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+        wal.sync(wal.appendedPosition());
+    }
+
+    @Override
+    public User replace(long id, User user) {
+        User previous;
+        writeGate.readLock().lock();
+        try {
+            previous = delegate.replace(id, user);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+        if (previous != null) {
+            wal.sync(wal.appendedPosition());
+        }
+        return previous;
+    }
+
+    @Override
+    public User remove(long id) {
+        User previous;
+        writeGate.readLock().lock();
+        try {
+            previous = delegate.remove(id);
+        } finally {
+            writeGate.readLock().unlock();
+        }
+        if (previous != null) {
+            wal.sync(wal.appendedPosition());
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return delegate.iterator();
+    }
+
+    // Includes deleted users, so ids are never handed out twice across restarts
+    @Override
+    public long highestId() {
+        return highestId.get();
+    }
+
+    // Writes a compacted snapshot of the current store and drops the log segments and snapshots it replaces
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long seq;
+            long maxId;
+            // no write is between logging its record and applying it while the gate is closed, so everything
+            // in the segments before seq is already visible to the iteration below
+            writeGate.writeLock().lock();
+            try {
+                seq = wal.rotate();
+                maxId = highestId.get();
+            } finally {
+                writeGate.writeLock().unlock();
+            }
+            Path tmp = directory.resolve(String.format("snapshot-%020d.tmp", seq));
+            try {
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                     DataOutputStream out = new DataOutputStream(
+                             new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    out.writeLong(maxId);
+                    for (Iterator<User> users = delegate.iterator(); users.hasNext(); ) {
+                        out.writeByte(1);
+                        UserRecordCodec.writeUser(out, users.next());
+                    }
+                    out.writeByte(0);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(tmp, snapshotPath(seq), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+                for (long older : snapshots()) {
+                    if (older < seq) {
+                        Files.deleteIfExists(snapshotPath(older));
+                    }
+                }
+                for (long older : UserWriteAheadLog.segments(directory)) {
+                    if (older < seq) {
+                        Files.deleteIfExists(UserWriteAheadLog.segmentPath(directory, older));
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not write user snapshot " + tmp, ex);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        snapshotLock.lock();
+        try {
+            wal.close();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Called by the delegate inside its atomic write, so log order matches apply order for every id
+    private void logChange(User previous, User current) {
+        long id = (current != null) ? current.getId() : previous.getId();
+        highestId.accumulateAndGet(id, Math::max);
+        wal.append((current != null) ? UserRecordCodec.encodePut(current) : UserRecordCodec.encodeDelete(id));
+        listener.changed(previous, current);
+    }
+
+    // Loads the newest snapshot and replays the log segments written after it; returns the next segment to write
+    private long recover() throws IOException {
+        long started = System.nanoTime();
+        List<Long> snapshots = snapshots();
+        long snapshotSeq = snapshots.isEmpty() ? -1 : snapshots.get(snapshots.size() - 1);
+        long lastSeq = snapshotSeq;
+        long users = 0;
+        long records = 0;
+
+        if (snapshotSeq >= 0) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(snapshotPath(snapshotSeq)), 1 << 16))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a user snapshot: " + snapshotPath(snapshotSeq));
+                }
+                highestId.set(in.readLong());
+                while (in.readByte() != 0) {
+                    delegate.put(UserRecordCodec.readUser(in));
+                    users++;
+                }
+            }
+        }
+        for (long seq : UserWriteAheadLog.segments(directory)) {
+            if (seq >= snapshotSeq) {
+                records += UserWriteAheadLog.replay(UserWriteAheadLog.segmentPath(directory, seq), this::apply);
+                lastSeq = seq;
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path leftover : (Iterable<Path>) files.filter(file -> file.toString().endsWith(".tmp"))::iterator) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        log.info("Recovered {} users from {} ({} from snapshot, {} log records) in {} ms",
+                delegate.size(), directory, users, records, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return lastSeq + 1;
+    }
+
+    private void apply(ByteBuffer record) {
+        long id = UserRecordCodec.id(record);
+        highestId.accumulateAndGet(id, Math::max);
+        if (UserRecordCodec.type(record) == UserRecordCodec.PUT) {
+            delegate.put(UserRecordCodec.decodePut(record));
+        } else {
+            delegate.remove(id);
+        }
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException ex) {
+            log.warn("Periodic user snapshot failed; the log keeps growing until the next one succeeds", ex);
+        }
+    }
+
+    private Path snapshotPath(long seq) {
+        return directory.resolve(String.format("snapshot-%020d.dat", seq));
+    }
+
+    private List<Long> snapshots() throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("snapshot-") && name.endsWith(".dat"))
+                    .forEach(name -> seqs.add(Long.parseLong(name.substring(9, name.length() - 4))));
+        }
+        seqs.sort(null);
+        return seqs;
+    }
+}
@@ -0,0 +1,192 @@
+package com.swsisolutions.springboot.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Deduplicated, packed strings for ColumnarUserStore. Each distinct string is stored once as UTF-8 in a shared
+// byte arena and is referred to by an int ref; equal strings share a ref and a reference count.
+// Freed bytes are reclaimed by compacting the arena once more than half of it is garbage.
+// Not thread-safe: ColumnarUserStore guards it with its lock.
+class StringPool {
+
+    static final int NULL_REF = -1;
+
+    private static final int MIN_COMPACT_BYTES = 1 << 20;
+
+    private byte[] arena = new byte[1 << 12];
+    private int arenaUsed;
+    private long garbageBytes;
+
+    // per ref
+    private int[] offsets = new int[64];
+    private int[] lengths = new int[64];
+    private int[] hashes = new int[64];
+    private int[] refCounts = new int[64];
+    private int refsUsed;
+    private int[] freeRefs = new int[16];
+    private int freeCount;
+
+    // dedup table of ref + 1, 0 = empty, linear probing
+    private int[] table = new int[128];
+    private int distinct;
+
+    int intern(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes);
+        int mask = table.length - 1;
+        int index = hash & mask;
+        for (int cell = table[index]; cell != 0; cell = table[index]) {
+            int ref = cell - 1;
+            if (hashes[ref] == hash && equals(ref, bytes)) {
+                refCounts[ref]++;
+                return ref;
+            }
+            index = (index + 1) & mask;
+        }
+        int ref = newRef(bytes, hash);
+        table[index] = ref + 1;
+        if (++distinct * 2 > table.length) {
+            rebuildTable(table.length << 1);
+        }
+        return ref;
+    }
+
+    void release(int ref) {
+        if (ref == NULL_REF || --refCounts[ref] > 0) {
+            return;
+        }
+        removeFromTable(ref);
+        garbageBytes += lengths[ref];
+        if (freeCount == freeRefs.length) {
+            freeRefs = Arrays.copyOf(freeRefs, freeCount << 1);
+        }
+        freeRefs[freeCount++] = ref;
+        if (garbageBytes > MIN_COMPACT_BYTES && garbageBytes * 2 > arenaUsed) {
+            compact();
+        }
+    }
+
+    // Safe to call without the lock as part of an optimistic read: the bytes of a live string are never
+    // overwritten in place (compaction copies into a new arena), so a torn read fails validation or throws
+    String get(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        return new String(arena, offsets[ref], lengths[ref], StandardCharsets.UTF_8);
+    }
+
+    int distinctStrings() {
+        return distinct;
+    }
+
+    long footprintBytes() {
+        return arena.length + (long) table.length * Integer.BYTES
+                + (long) offsets.length * Integer.BYTES * 4 + (long) freeRefs.length * Integer.BYTES;
+    }
+
+    private int newRef(byte[] bytes, int hash) {
+        int ref;
+        if (freeCount > 0) {
+            ref = freeRefs[--freeCount];
+        } else {
+            if (refsUsed == offsets.length) {
+                int capacity = refsUsed << 1;
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                refCounts = Arrays.copyOf(refCounts, capacity);
+            }
+            ref = refsUsed++;
+        }
+        if (arenaUsed + bytes.length > arena.length) {
+            long capacity = Math.max((long) arena.length << 1, (long) arenaUsed + bytes.length);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("String arena is full");
+            }
+            arena = Arrays.copyOf(arena, (int) capacity);
+        }
+        System.arraycopy(bytes, 0, arena, arenaUsed, bytes.length);
+        offsets[ref] = arenaUsed;
+        lengths[ref] = bytes.length;
+        hashes[ref] = hash;
+        refCounts[ref] = 1;
+        arenaUsed += bytes.length;
+        return ref;
+    }
+
+    private boolean equals(int ref, byte[] bytes) {
+        int offset = offsets[ref];
+        return lengths[ref] == bytes.length
+                && Arrays.equals(arena, offset, offset + bytes.length, bytes, 0, bytes.length);
+    }
+
+    private void removeFromTable(int ref) {
+        int mask = table.length - 1;
+        int hole = hashes[ref] & mask;
+        while (table[hole] != ref + 1) {
+            hole = (hole + 1) & mask;
+        }
+        // backward-shift deletion, as in LongIntHashMap
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            int moving = table[next];
+            if (moving == 0) {
+                break;
+            }
+            int home = hashes[moving - 1] & mask;
+            boolean stays = (hole <= next) ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stays) {
+                table[hole] = moving;
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+        distinct--;
+    }
+
+    private void rebuildTable(int capacity) {
+        int[] rebuilt = new int[capacity];
+        int mask = capacity - 1;
+        for (int cell : table) {
+            if (cell != 0) {
+                int index = hashes[cell - 1] & mask;
+                while (rebuilt[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                rebuilt[index] = cell;
+            }
+        }
+        table = rebuilt;
+    }
+
+    // Copies live strings into a fresh arena; refs stay the same, only their offsets move
+    private void compact() {
+        int liveBytes = (int) (arenaUsed - garbageBytes);
+        byte[] compacted = new byte[Math.max(1 << 12, liveBytes + (liveBytes >> 1))];
+        int used = 0;
+        for (int ref = 0; ref < refsUsed; ref++) {
+            if (refCounts[ref] > 0) {
+                System.arraycopy(arena, offsets[ref], compacted, used, lengths[ref]);
+                offsets[ref] = used;
+                used += lengths[ref];
+            }
+        }
+        arena = compacted;
+        arenaUsed = used;
+        garbageBytes = 0;
+    }
+
+    // a murmur3-style finalizer over the standard polynomial hash, so the low bits used for probing are mixed
+    private static int hash(byte[] bytes) {
+        int h = Arrays.hashCode(bytes);
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
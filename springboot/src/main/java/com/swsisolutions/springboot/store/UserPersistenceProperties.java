@@ -0,0 +1,40 @@
+package com.swsisolutions.springboot.store;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+// app.users.persistence.* - optional write-ahead log + snapshot persistence for the user store
+@ConfigurationProperties(prefix = "app.users.persistence")
+public class UserPersistenceProperties {
+
+    public enum SyncMode {
+        // force the log to disk after every write
+        ALWAYS,
+        // writers wait for a shared flush that covers everyone who wrote in the meantime
+        GROUP
+    }
+
+    private boolean enabled;
+    private String directory = "data/users";
+    private SyncMode sync = SyncMode.GROUP;
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    // zero or negative disables periodic snapshots
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    public SyncMode getSync() { return sync; }
+    public void setSync(SyncMode sync) { this.sync = sync; }
+
+    public DataSize getSegmentSize() { return segmentSize; }
+    public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+
+    public Duration getSnapshotInterval() { return snapshotInterval; }
+    public void setSnapshotInterval(Duration snapshotInterval) { this.snapshotInterval = snapshotInterval; }
+}
@@ -0,0 +1,114 @@
+package com.swsisolutions.springboot.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.swsisolutions.springboot.model.User;
+
+// Binary encoding of user changes, shared by the write-ahead log and the snapshots:
+//   PUT    = type:byte(1) id:long age:int name:string email:string
+//   DELETE = type:byte(2) id:long
+// where string = length:int (-1 for null) followed by that many UTF-8 bytes.
+final class UserRecordCodec {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private UserRecordCodec() {
+    }
+
+    static byte[] encodePut(User user) {
+        byte[] name = bytes(user.getName());
+        byte[] email = bytes(user.getEmail());
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + stringSize(name) + stringSize(email));
+        buffer.put(PUT).putLong(user.getId()).putInt(user.getAge());
+        putString(buffer, name);
+        putString(buffer, email);
+        return buffer.array();
+    }
+
+    static byte[] encodeDelete(long id) {
+        return ByteBuffer.allocate(1 + Long.BYTES).put(DELETE).putLong(id).array();
+    }
+
+    static byte type(ByteBuffer record) {
+        return record.get(0);
+    }
+
+    static long id(ByteBuffer record) {
+        return record.getLong(1);
+    }
+
+    // Decodes a PUT record; the buffer's position is left after the record
+    static User decodePut(ByteBuffer record) {
+        record.position(1);
+        long id = record.getLong();
+        int age = record.getInt();
+        String name = getString(record);
+        String email = getString(record);
+        return new User(id, name, email, age);
+    }
+
+    static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeLong(user.getId());
+        out.writeInt(user.getAge());
+        writeString(out, bytes(user.getName()));
+        writeString(out, bytes(user.getEmail()));
+    }
+
+    static User readUser(DataInput in) throws IOException {
+        long id = in.readLong();
+        int age = in.readInt();
+        String name = readString(in);
+        String email = readString(in);
+        return new User(id, name, email, age);
+    }
+
+    private static byte[] bytes(String value) {
+        return (value != null) ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int stringSize(byte[] value) {
+        return Integer.BYTES + ((value != null) ? value.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutput out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
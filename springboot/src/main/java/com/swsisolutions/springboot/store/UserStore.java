@@ -0,0 +1,53 @@
+package com.swsisolutions.springboot.store;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.swsisolutions.springboot.model.User;
+
+// Storage engine behind UserService. Implementations are selected with app.users.store (see UserStoreConfig).
+// Writes are atomic per id, and the listener is called inside that atomic step so that whatever it maintains
+// (indexes, a log, ...) sees the changes to one id in the order they were applied.
+public interface UserStore {
+
+    @FunctionalInterface
+    interface ChangeListener {
+        // previous is null for an insert, current is null for a delete
+        void changed(User previous, User current);
+    }
+
+    void setListener(ChangeListener listener);
+
+    User get(long id);
+
+    // Inserts or replaces the user stored under user.getId(); returns the previous user, if any
+    User put(User user);
+
+    // Puts a batch as one store operation where the engine can (one lock, one log sync); the listener still sees
+    // each user separately. Not atomic as a whole: readers may observe part of the batch.
+    default void putAll(List<User> batch) {
+        for (User user : batch) {
+            put(user);
+        }
+    }
+
+    // Replaces the user only if the id exists; returns the previous user, or null if there was none
+    User replace(long id, User user);
+
+    // Returns the removed user, or null if there was none
+    User remove(long id);
+
+    int size();
+
+    // The highest id ever stored, so that UserService can continue its id sequence after a restart
+    default long highestId() {
+        long highest = 0;
+        for (Iterator<User> users = iterator(); users.hasNext(); ) {
+            highest = Math.max(highest, users.next().getId());
+        }
+        return highest;
+    }
+
+    // Weakly consistent walk over all users; it does not copy the store and never fails on concurrent writes
+    Iterator<User> iterator();
+}
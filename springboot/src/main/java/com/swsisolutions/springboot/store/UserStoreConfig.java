@@ -0,0 +1,33 @@
+package com.swsisolutions.springboot.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// app.users.store=map (default) keeps User objects in a ConcurrentHashMap,
+// app.users.store=columnar switches to the compact ColumnarUserStore.
+// app.users.persistence.enabled=true makes either engine durable (see PersistentUserStore).
+@Configuration
+@EnableConfigurationProperties(UserPersistenceProperties.class)
+public class UserStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "map", matchIfMissing = true)
+    public UserStore concurrentMapUserStore(UserPersistenceProperties persistence) {
+        return withPersistence(new ConcurrentMapUserStore(), persistence);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "columnar")
+    public UserStore columnarUserStore(@Value("${app.users.columnar.initial-capacity:1024}") int initialCapacity,
+                                       UserPersistenceProperties persistence) {
+        return withPersistence(new ColumnarUserStore(initialCapacity), persistence);
+    }
+
+    // PersistentUserStore is AutoCloseable, so the context flushes and closes the log on shutdown
+    private static UserStore withPersistence(UserStore store, UserPersistenceProperties persistence) {
+        return persistence.isEnabled() ? new PersistentUserStore(store, persistence) : store;
+    }
+}
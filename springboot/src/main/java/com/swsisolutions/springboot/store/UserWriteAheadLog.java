@@ -0,0 +1,343 @@
+package com.swsisolutions.springboot.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.swsisolutions.springboot.store.UserPersistenceProperties.SyncMode;
+
+// Append-only log of user changes in fixed-size memory-mapped segments (wal-<seq>.log).
+// Each record is length:int crc32c:int payload; the zero-filled tail of a segment marks its end, and a torn
+// record from a crash fails its checksum, which also ends the replay.
+// Durability: ALWAYS forces the segment after every write, GROUP lets one flusher thread force on behalf of
+// every writer waiting at that moment (group commit).
+// Segments are unmapped as soon as they are retired rather than whenever the GC gets to their buffers, so a
+// deleted segment gives its disk space and address space back straight away.
+class UserWriteAheadLog implements Closeable {
+
+    private static final int HEADER = 2 * Integer.BYTES;
+    // Unsafe.invokeCleaner, the only way to unmap a MappedByteBuffer before it is collected; null if unavailable
+    private static final MethodHandle UNMAP = unmapHandle();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final SyncMode syncMode;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    // a j.u.c. lock rather than synchronized, so a virtual thread waiting on msync doesn't pin its carrier
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final Thread flusher;
+    // rotated out but not unmapped yet: force() may still be using one outside the lock
+    private final List<MappedByteBuffer> retired = new ArrayList<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentSeq;
+    private int writeOffset;
+    // logical positions: total bytes appended to / forced to disk across all segments
+    private volatile long appended;
+    private volatile long durable;
+    private volatile boolean closed;
+
+    UserWriteAheadLog(Path directory, long firstSegment, int segmentSize, SyncMode syncMode) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncMode = syncMode;
+        openSegment(firstSegment);
+        if (syncMode == SyncMode.GROUP) {
+            flusher = new Thread(this::flushLoop, "user-wal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    static Path segmentPath(Path directory, long seq) {
+        return directory.resolve(String.format("wal-%020d.log", seq));
+    }
+
+    // Sequence numbers of the segments in the directory, oldest first
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("wal-") && name.endsWith(".log"))
+                    .forEach(name -> seqs.add(Long.parseLong(name.substring(4, name.length() - 4))));
+        }
+        Collections.sort(seqs);
+        return seqs;
+    }
+
+    // Hands every intact record payload of a segment to the consumer, in append order
+    static int replay(Path segmentFile, Consumer<ByteBuffer> consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel file = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        try {
+            int offset = 0;
+            int records = 0;
+            CRC32C crc = new CRC32C();
+            while (offset + HEADER <= buffer.limit()) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER + length > buffer.limit()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(offset + HEADER, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                    break;
+                }
+                consumer.accept(payload);
+                offset += HEADER + length;
+                records++;
+            }
+            return records;
+        } finally {
+            // the consumer must not keep the payloads
+            unmap(buffer);
+        }
+    }
+
+    // Appends one record and returns the log position just after it
+    long append(byte[] payload) {
+        int size = HEADER + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Record of " + size + " bytes does not fit in a log segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("User log is closed");
+            }
+            if (writeOffset + size > segmentSize) {
+                rotateLocked();
+            }
+            segment.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            segment.put(writeOffset + HEADER, payload);
+            // the length goes in last, so a half-written record reads as the end of the log
+            segment.putInt(writeOffset, payload.length);
+            writeOffset += size;
+            appended += size;
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long appendedPosition() {
+        return appended;
+    }
+
+    // Blocks until everything up to the position is on disk
+    void sync(long position) {
+        if (durable >= position) {
+            return;
+        }
+        if (syncMode == SyncMode.ALWAYS) {
+            force();
+            return;
+        }
+        lock.lock();
+        try {
+            while (durable < position && !closed) {
+                flushRequested.signal();
+                durableAdvanced.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the user log to sync", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Switches to a new segment and returns its sequence number; every earlier record is in an older segment
+    long rotate() {
+        long seq;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("User log is closed");
+            }
+            rotateLocked();
+            seq = segmentSeq;
+        } finally {
+            lock.unlock();
+        }
+        // the caller is about to delete the older segments
+        forceLock.lock();
+        try {
+            unmapRetired();
+        } finally {
+            forceLock.unlock();
+        }
+        return seq;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            flushRequested.signalAll();
+            durableAdvanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        force();
+        forceLock.lock();
+        try {
+            lock.lock();
+            try {
+                retired.add(segment);
+                segment = null;
+            } finally {
+                lock.unlock();
+            }
+            unmapRetired();
+            channel.close();
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void rotateLocked() {
+        try {
+            segment.force();
+            channel.close();
+            retired.add(segment);
+            durable = appended;
+            durableAdvanced.signalAll();
+            openSegment(segmentSeq + 1);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not rotate the user log", ex);
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        channel = FileChannel.open(segmentPath(directory, seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentSeq = seq;
+        writeOffset = 0;
+    }
+
+    private void force() {
+        forceLock.lock();
+        try {
+            MappedByteBuffer target;
+            long position;
+            lock.lock();
+            try {
+                target = segment;
+                position = appended;
+            } finally {
+                lock.unlock();
+            }
+            unmapRetired();
+            if (target == null || position <= durable) {
+                return;
+            }
+            target.force();
+            lock.lock();
+            try {
+                if (position > durable) {
+                    durable = position;
+                }
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    // Caller holds forceLock, so no force() is using a retired segment; appends only ever touch the current one
+    private void unmapRetired() {
+        List<MappedByteBuffer> unmapping;
+        lock.lock();
+        try {
+            if (retired.isEmpty()) {
+                return;
+            }
+            unmapping = new ArrayList<>(retired);
+            retired.clear();
+        } finally {
+            lock.unlock();
+        }
+        unmapping.forEach(UserWriteAheadLog::unmap);
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAP == null) {
+            return;
+        }
+        try {
+            UNMAP.invokeExact(buffer);
+        } catch (Throwable ex) {
+            // left to the GC, as without the handle
+        }
+    }
+
+    private static MethodHandle unmapHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            MethodHandle cleaner = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            return cleaner.bindTo(theUnsafe.get(null))
+                    .asType(MethodType.methodType(void.class, MappedByteBuffer.class));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            lock.lock();
+            try {
+                while (!closed && appended <= durable) {
+                    flushRequested.await();
+                }
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            force();
+        }
+    }
+}
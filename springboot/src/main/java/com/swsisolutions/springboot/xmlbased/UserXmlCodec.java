@@ -0,0 +1,139 @@
+package com.swsisolutions.springboot.xmlbased;
+
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.springframework.stereotype.Component;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.ctc.wstx.stax.WstxOutputFactory;
+import com.swsisolutions.springboot.model.User;
+
+// Reads and writes <Users><User>...</User>...</Users> documents one <User> at a time with Woodstox, so a batch
+// of any size is never held as a tree or a list. Elements are the ones Jackson XML uses for User
+// (id, name, email, age); unknown elements are skipped and a bare <User> document is read as a batch of one.
+@Component
+public class UserXmlCodec {
+
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+
+    public UserXmlCodec() {
+        inputFactory = new WstxInputFactory();
+        // partner uploads are untrusted: no DTDs, no external entities
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        outputFactory = new WstxOutputFactory();
+    }
+
+    public UserReader reader(InputStream input) throws XMLStreamException {
+        return new UserReader(inputFactory.createXMLStreamReader(input));
+    }
+
+    // The caller owns the stream; it is flushed but not closed
+    public void write(OutputStream output, Iterator<User> users) throws XMLStreamException {
+        XMLStreamWriter writer = outputFactory.createXMLStreamWriter(output, "UTF-8");
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement("Users");
+        while (users.hasNext()) {
+            User user = users.next();
+            writer.writeStartElement("User");
+            if (user.getId() != null) {
+                element(writer, "id", user.getId().toString());
+            }
+            element(writer, "name", user.getName());
+            element(writer, "email", user.getEmail());
+            element(writer, "age", Integer.toString(user.getAge()));
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
+    private static void element(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeStartElement(name);
+            writer.writeCharacters(value);
+            writer.writeEndElement();
+        }
+    }
+
+    public static final class UserReader implements AutoCloseable {
+        private final XMLStreamReader reader;
+        private long count;
+
+        private UserReader(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        // The next <User>, or null at the end of the document. A <User> with an unusable value throws
+        // IllegalArgumentException once it has been consumed, so the caller can reject it and keep reading.
+        public User next() throws XMLStreamException {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "User".equals(reader.getLocalName())) {
+                    count++;
+                    return readUser();
+                }
+            }
+            return null;
+        }
+
+        // <User> elements read so far, including rejected ones
+        public long count() {
+            return count;
+        }
+
+        private User readUser() throws XMLStreamException {
+            User user = new User();
+            String problem = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "name" -> user.setName(reader.getElementText());
+                    case "email" -> user.setEmail(reader.getElementText());
+                    case "age" -> {
+                        String age = reader.getElementText().trim();
+                        try {
+                            user.setAge(Integer.parseInt(age));
+                        } catch (NumberFormatException ex) {
+                            problem = "age is not a number: " + age;
+                        }
+                    }
+                    // ids are assigned on import
+                    default -> skipElement();
+                }
+            }
+            if (problem != null) {
+                throw new IllegalArgumentException(problem);
+            }
+            return user;
+        }
+
+        private void skipElement() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws XMLStreamException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.swsisolutions.springboot.xmlbased;
+
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.swsisolutions.springboot.dto.UserImportResult;
+import com.swsisolutions.springboot.exceptions.BadRequestException;
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+
+@RestController
+@RequestMapping("/api/users")
+public class XmlUserController {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final UserService userService;
+    private final UserXmlCodec codec;
+    private final Validator validator;
+
+    public XmlUserController(UserService userService, UserXmlCodec codec, Validator validator) {
+        this.userService = userService;
+        this.codec = codec;
+        this.validator = validator;
+    }
+
+    // Example of returning XML response
+    @GetMapping(
+        value = "/sample",
+        produces = MediaType.APPLICATION_XML_VALUE
+    )
+    public UserXml getSampleUser() {
+    	UserXml user = new UserXml();
+        user.setName("John Doe");
+        user.setAge(30);
+        user.setEmail("john.doe@example.com");
+        return user;
+    }
+
+    // POST a batch as <Users><User>...</User>...</Users>; users are read and created one at a time
+    @PostMapping(value = "/xml", consumes = MediaType.APPLICATION_XML_VALUE)
+    public ResponseEntity<UserImportResult> importUsers(InputStream body) throws IOException {
+        long started = System.nanoTime();
+        long imported = 0;
+        long failed = 0;
+        List<String> errors = new ArrayList<>();
+        try (UserXmlCodec.UserReader reader = codec.reader(body)) {
+            while (true) {
+                String problem;
+                try {
+                    User user = reader.next();
+                    if (user == null) {
+                        break;
+                    }
+                    problem = firstViolation(user);
+                    if (problem == null) {
+                        userService.createUser(user);
+                        imported++;
+                        continue;
+                    }
+                } catch (IllegalArgumentException ex) {
+                    problem = ex.getMessage();
+                }
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("user " + reader.count() + ": " + problem);
+                }
+            }
+        } catch (XMLStreamException ex) {
+            // users before the malformed part have already been created
+            throw new BadRequestException("Malformed XML after " + imported + " imported users: " + ex.getMessage());
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return ResponseEntity.ok(new UserImportResult(imported, failed, errors, elapsedMillis));
+    }
+
+    // GET every user as one streamed <Users> document
+    @GetMapping(value = "/xml", produces = MediaType.APPLICATION_XML_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> {
+            try {
+                codec.write(out, userService.iterateUsers());
+            } catch (XMLStreamException ex) {
+                throw new IOException(ex);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_XML)
+                .body(body);
+    }
+
+    private String firstViolation(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<User> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+}
@@ -1,20 +0,0 @@
-package xmlbased;
-
-
-//@JacksonXmlRootElement(localName = "User")
-//public class UserXml {
-//    private String name;
-//    private int age;
-//    private String email;
-//
-//    // Getters and Setters
-//    public String getName() { return name; }
-//    public void setName(String name) { this.name = name; }
-//
-//    public int getAge() { return age; }
-//    public void setAge(int age) { this.age = age; }
-//
-//    public String getEmail() { return email; }
-//    public void setEmail(String email) { this.email = email; }
-//}
-
@@ -0,0 +1,44 @@
+package com.swsisolutions.springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// The "virtual" profile must put Tomcat's request handling on virtual threads
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual")
+class VirtualThreadProfileTests {
+
+	@TestConfiguration
+	static class ThreadProbe {
+		@Bean
+		ThreadProbeController threadProbeController() {
+			return new ThreadProbeController();
+		}
+	}
+
+	@RestController
+	static class ThreadProbeController {
+		@GetMapping("/test/thread")
+		String thread() {
+			return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+		}
+	}
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void requestsRunOnVirtualThreads() {
+		assertEquals("virtual", restTemplate.getForObject("/test/thread", String.class));
+	}
+
+}
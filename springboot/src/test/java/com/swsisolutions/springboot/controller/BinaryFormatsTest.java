@@ -0,0 +1,100 @@
+package com.swsisolutions.springboot.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.swsisolutions.springboot.exceptions.GlobalExceptionHandler;
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+// The converters of BinaryFormatsConfig next to JSON, negotiated on UserController
+class BinaryFormatsTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    private UserService userService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService();
+        userService.createUser(new User(null, "Ada", "ada@example.com", 36));
+        BinaryFormatsConfig config = new BinaryFormatsConfig();
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, json,
+                        Validation.buildDefaultValidatorFactory().getValidator()))
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry(), false))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(json),
+                        config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()),
+                        config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()))
+                .build();
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Ada"));
+    }
+
+    @Test
+    void cborIsNegotiatedBothWays() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users/1").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("ada@example.com", cbor.readValue(body, User.class).getEmail());
+
+        byte[] created = mockMvc.perform(post("/api/users").contentType(CBOR).accept(CBOR)
+                        .content(cbor.writeValueAsBytes(new User(null, "Grace", "grace@example.com", 45))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(2L, cbor.readValue(created, User.class).getId());
+        assertEquals("Grace", userService.getUserById(2L).getName());
+    }
+
+    @Test
+    void smileIsNegotiatedBothWays() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/users/1").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(36, smile.readValue(body, User.class).getAge());
+
+        // a binary body answered in JSON
+        mockMvc.perform(post("/api/users").contentType(SMILE).accept(MediaType.APPLICATION_JSON)
+                        .content(smile.writeValueAsBytes(new User(null, "Linus", "linus@example.com", 54))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Linus"));
+    }
+
+    // validation applies to binary bodies like to JSON ones
+    @Test
+    void invalidBinaryBodiesAreRejected() throws Exception {
+        mockMvc.perform(post("/api/users").contentType(CBOR)
+                        .content(cbor.writeValueAsBytes(new User(null, "", "not-an-email", -1))))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,112 @@
+package com.swsisolutions.springboot.controller;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.swsisolutions.springboot.exceptions.GlobalExceptionHandler;
+import com.swsisolutions.springboot.exceptions.ResourceNotFoundException;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.services.BookImportService;
+import com.swsisolutions.springboot.services.BookService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookControllerTest {
+
+    private BookService bookService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        bookService = mock(BookService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookController(bookService, mock(BookImportService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry(), false))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()))
+                .build();
+        when(bookService.findById(1L)).thenReturn(book(3L));
+        when(bookService.findById(2L)).thenThrow(new ResourceNotFoundException("Book not found with id 2"));
+    }
+
+    // the ETag is the optimistic-lock version, scoped to this run; the version itself stays out of the body
+    @Test
+    void etagIsTheVersionForThisRun() throws Exception {
+        String body = mockMvc.perform(get("/api/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-3\"")))
+                .andExpect(jsonPath("$.title").value("Dune"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(-1, body.indexOf("version"));
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        String etag = etag(mockMvc);
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void staleEtagGetsTheBook() throws Exception {
+        String etag = etag(mockMvc);
+        when(bookService.findById(1L)).thenReturn(book(4L));
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag.replace("-3\"", "-4\"")));
+    }
+
+    // after a restart the in-memory ids and versions start over, so a tag from the last run must not match
+    @Test
+    void etagFromAnotherRunDoesNotMatch() throws Exception {
+        String etag = etag(mockMvc);
+        Thread.sleep(5);
+        MockMvc restarted = MockMvcBuilders
+                .standaloneSetup(new BookController(bookService, mock(BookImportService.class)))
+                .build();
+
+        assertNotEquals(etag, etag(restarted));
+        restarted.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        // nor does a bare version, as served before tags were scoped
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void missingBookIsNotFoundEvenWithAnEtag() throws Exception {
+        mockMvc.perform(get("/api/books/2").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotFound());
+    }
+
+    private static String etag(MockMvc mockMvc) throws Exception {
+        return mockMvc.perform(get("/api/books/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static Book book(long version) {
+        Book book = new Book("Dune", "Frank Herbert", LocalDate.of(1965, 8, 1));
+        book.setId(1L);
+        book.setVersion(version);
+        return book;
+    }
+}
@@ -0,0 +1,280 @@
+package com.swsisolutions.springboot.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swsisolutions.springboot.exceptions.GlobalExceptionHandler;
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.services.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+class UserControllerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private UserService userService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService();
+        for (int i = 0; i < 10; i++) {
+            userService.createUser(new User(null, "User " + i, "user" + i + "@example.com", 20 + i));
+        }
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, objectMapper,
+                        Validation.buildDefaultValidatorFactory().getValidator()))
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry(), false))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void nonNumericLimitIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("limit", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for limit: abc"));
+    }
+
+    @Test
+    void unknownSortIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("limit", "5").param("sort", "shoeSize"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported sort: shoeSize"));
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("limit", "5").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchWithoutCriteriaIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At least one search criterion is required"));
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        // a tag for another version doesn't match
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, etag.replace("-1\"", "-9\"")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateChangesTheEtag() throws Exception {
+        String before = mockMvc.perform(get("/api/users/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/api/users/1").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"email\":\"renamed@example.com\",\"age\":40}"))
+                .andExpect(status().isOk());
+
+        String after = mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+        // the version stays out of the body
+        assertEquals(-1, mockMvc.perform(get("/api/users/1")).andReturn().getResponse()
+                .getContentAsString().indexOf("version"));
+    }
+
+    @Test
+    void batchFromAJsonArrayReportsEveryItemInOrder() throws Exception {
+        List<JsonNode> report = batch(MediaType.APPLICATION_JSON, """
+                [{"name":"A","email":"a@example.com","age":1},
+                 {"name":"","email":"bad","age":-1},
+                 {"name":"C","email":"c@example.com","age":"old"},
+                 {"name":"D","email":"d@example.com","age":4}]
+                """);
+
+        assertEquals(5, report.size());
+        assertItem(report.get(0), 0, "created");
+        assertEquals(11, report.get(0).get("id").asLong());
+        assertItem(report.get(1), 1, "invalid");
+        assertEquals(3, report.get(1).get("errors").size());
+        assertItem(report.get(2), 2, "invalid");
+        assertEquals("age", report.get(2).get("errors").get(0).get("field").asText());
+        assertItem(report.get(3), 3, "created");
+        assertEquals(12, report.get(3).get("id").asLong());
+        assertSummary(report.get(4), 2, 2);
+        assertEquals("D", userService.getUserById(12L).getName());
+    }
+
+    @Test
+    void batchFromNdjson() throws Exception {
+        List<JsonNode> report = batch(MediaType.APPLICATION_NDJSON, """
+                {"name":"A","email":"a@example.com","age":1}
+                {"name":"B","email":"b@example.com","age":0}
+                {"name":"C","email":"c@example.com","age":3}
+                """);
+
+        assertItem(report.get(0), 0, "created");
+        assertItem(report.get(1), 1, "invalid");
+        assertItem(report.get(2), 2, "created");
+        assertSummary(report.get(3), 2, 1);
+    }
+
+    // items before the malformed JSON are kept; nothing after it can be read
+    @Test
+    void malformedJsonStopsTheBatch() throws Exception {
+        List<JsonNode> report = batch(MediaType.APPLICATION_NDJSON, """
+                {"name":"A","email":"a@example.com","age":1}
+                {"name":"B","email":"b@example.com","age":2}
+                {"name":"C", oops
+                {"name":"D","email":"d@example.com","age":4}
+                """);
+
+        assertEquals(3, report.size());
+        assertItem(report.get(0), 0, "created");
+        assertItem(report.get(1), 1, "created");
+        assertSummary(report.get(2), 2, 0);
+        assertTrue(report.get(2).get("error").asText().startsWith("Malformed JSON at item 2"));
+        assertEquals(12, userService.getAllUsers().size());
+    }
+
+    // more than a store chunk, with rejected items spread through it, still reported in upload order
+    @Test
+    void largeBatchesKeepUploadOrderAndCapStoredErrors() throws Exception {
+        StringBuilder body = new StringBuilder();
+        int items = 2_500;
+        for (int i = 0; i < items; i++) {
+            body.append(i % 2 == 0
+                    ? "{\"name\":\"N" + i + "\",\"email\":\"u" + i + "@example.com\",\"age\":1}\n"
+                    : "{\"name\":\"\",\"email\":\"u" + i + "@example.com\",\"age\":1}\n");
+        }
+        List<JsonNode> report = batch(MediaType.APPLICATION_NDJSON, body.toString());
+
+        assertEquals(items + 1, report.size());
+        long lastId = 0;
+        int withErrors = 0;
+        for (int i = 0; i < items; i++) {
+            JsonNode item = report.get(i);
+            assertEquals(i, item.get("index").asInt());
+            if (i % 2 == 0) {
+                assertEquals("created", item.get("status").asText());
+                // ids are handed out in upload order
+                assertTrue(item.get("id").asLong() > lastId);
+                lastId = item.get("id").asLong();
+            } else {
+                assertEquals("invalid", item.get("status").asText());
+                withErrors += item.get("errors").isEmpty() ? 0 : 1;
+            }
+        }
+        // one violation per rejected item, only the first 1000 are kept
+        assertEquals(1000, withErrors);
+        assertSummary(report.get(items), items / 2, items / 2);
+        assertEquals(items / 2 - 1000, report.get(items).get("omittedErrors").asLong());
+    }
+
+    @Test
+    void ndjsonStreamsOneUserPerLine() throws Exception {
+        String ndjson = stream(get("/api/users").accept(MediaType.APPLICATION_NDJSON), MediaType.APPLICATION_NDJSON);
+
+        assertTrue(ndjson.endsWith("}\n"));
+        String[] lines = ndjson.split("\n");
+        assertEquals(10, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode user = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1, user.get("id").asLong());
+            assertEquals("User " + i, user.get("name").asText());
+            assertEquals("user" + i + "@example.com", user.get("email").asText());
+            assertEquals(20 + i, user.get("age").asInt());
+            assertFalse(user.has("version"));
+        }
+    }
+
+    @Test
+    void streamParamGivesTheSameArrayAsTheListing() throws Exception {
+        String array = stream(get("/api/users").param("stream", "true"), MediaType.APPLICATION_JSON);
+
+        JsonNode users = objectMapper.readTree(array);
+        assertTrue(users.isArray());
+        assertEquals(10, users.size());
+        String listing = mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readTree(listing), users);
+        assertEquals(-1, array.indexOf("version"));
+    }
+
+    @Test
+    void emptyStoreStreamsNothing() throws Exception {
+        for (long id = 1; id <= 10; id++) {
+            userService.deleteUser(id);
+        }
+        assertEquals("", stream(get("/api/users").accept(MediaType.APPLICATION_NDJSON), MediaType.APPLICATION_NDJSON));
+        assertEquals("[]", stream(get("/api/users").param("stream", "true"), MediaType.APPLICATION_JSON));
+    }
+
+    // a StreamingResponseBody is written asynchronously: start the request, then dispatch its result
+    private String stream(MockHttpServletRequestBuilder builder, MediaType expectedType) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(expectedType))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<JsonNode> batch(MediaType contentType, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/users/batch").contentType(contentType).content(body))
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static void assertItem(JsonNode item, int index, String status) {
+        assertEquals(index, item.get("index").asInt());
+        assertEquals(status, item.get("status").asText());
+    }
+
+    private static void assertSummary(JsonNode summary, long created, long failed) {
+        assertEquals(created, summary.get("created").asLong());
+        assertEquals(failed, summary.get("failed").asLong());
+    }
+}
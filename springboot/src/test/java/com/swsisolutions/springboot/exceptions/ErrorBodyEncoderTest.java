@@ -0,0 +1,60 @@
+package com.swsisolutions.springboot.exceptions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class ErrorBodyEncoderTest {
+
+    private final ErrorBodyEncoder encoder = new ErrorBodyEncoder(ZoneOffset.UTC);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // the hand-written body must read back exactly like the Jackson one, apart from the timestamp's precision
+    @Test
+    void matchesTheJacksonBody() throws Exception {
+        List<ErrorResponse.FieldViolation> violations = List.of(
+                new ErrorResponse.FieldViolation("name", "Name cannot be blank"),
+                new ErrorResponse.FieldViolation("email", "quote \" backslash \\ tab \t newline \n bell \u0007"));
+        String[][] cases = {
+                {"404", "Not Found", "User not found with id 7", "uri=/api/users/7"},
+                {"500", "Internal Server Error", null, "uri=/api/users"},
+                {"400", "Bad Request", "Zoë – 東京 \u001f", "uri=/api/users/search"}};
+        for (String[] c : cases) {
+            int status = Integer.parseInt(c[0]);
+            for (List<ErrorResponse.FieldViolation> errors : List.of(List.<ErrorResponse.FieldViolation>of(), violations)) {
+                ErrorResponse response = new ErrorResponse(LocalDateTime.now(), status, c[1], c[2], c[3]);
+                response.setErrors(errors.isEmpty() ? null : errors);
+                JsonNode expected = objectMapper.valueToTree(response);
+                JsonNode actual = objectMapper.readTree(encoder.encode(status, c[1], c[2], c[3], response.getErrors()));
+
+                String timestamp = actual.get("timestamp").asText();
+                assertTrue(timestamp.matches("\\d{4}-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d"), timestamp);
+                ((ObjectNode) expected).remove("timestamp");
+                ((ObjectNode) actual).remove("timestamp");
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    // the cached head for one (status, error) pair is not reused for another
+    @Test
+    void headsArePerStatusAndError() throws Exception {
+        encoder.encode(400, "Bad Request", "a", "p", null);
+        JsonNode conflict = objectMapper.readTree(encoder.encode(409, "Conflict", "b", "p", null));
+        assertEquals(409, conflict.get("status").asInt());
+        assertEquals("Conflict", conflict.get("error").asText());
+    }
+}
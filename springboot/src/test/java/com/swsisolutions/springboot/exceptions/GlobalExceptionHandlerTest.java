@@ -0,0 +1,48 @@
+package com.swsisolutions.springboot.exceptions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GlobalExceptionHandlerTest {
+
+    private final ExceptionHandlerMethodResolver resolver = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    @Test
+    void onlyBadRequestExceptionMapsTo400() {
+        assertEquals("handleBadRequestException", resolver.resolveMethod(new BadRequestException("x")).getName());
+        // an IllegalArgumentException from inside the app is a bug, not the client's fault
+        assertEquals("handleRuntimeException", resolver.resolveMethod(new IllegalArgumentException("x")).getName());
+    }
+
+    @Test
+    void errorsAreCountedPerExceptionType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(registry, false);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/users/7"));
+        handler.handleNotFoundException(new ResourceNotFoundException("gone"), request);
+        handler.handleNotFoundException(new ResourceNotFoundException("gone"), request);
+        handler.handleRuntimeException(new IllegalStateException("bug"), request);
+
+        assertEquals(2, registry.get("app.errors").tags("exception", "ResourceNotFoundException", "status", "404")
+                .counter().count());
+        assertEquals(1, registry.get("app.errors").tags("exception", "IllegalStateException", "status", "500")
+                .counter().count());
+    }
+
+    @Test
+    void stormModeWritesTheBodyWithoutJackson() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(new SimpleMeterRegistry(), true);
+        ResponseEntity<Object> response = handler.handleNotFoundException(new ResourceNotFoundException("gone"),
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/users/7")));
+        assertEquals(404, response.getStatusCode().value());
+        assertInstanceOf(byte[].class, response.getBody());
+    }
+}
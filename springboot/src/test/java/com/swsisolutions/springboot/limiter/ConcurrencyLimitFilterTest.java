@@ -0,0 +1,81 @@
+package com.swsisolutions.springboot.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(ConcurrencyLimitConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void offUnlessEnabled() {
+        contextRunner.run(context -> assertFalse(context.containsBean("concurrencyLimitFilter")));
+        contextRunner.withPropertyValues("app.limiter.enabled=false")
+                .run(context -> assertFalse(context.containsBean("concurrencyLimitFilter")));
+        contextRunner.withPropertyValues("app.limiter.enabled=true")
+                .run(context -> assertTrue(context.getBean("concurrencyLimitFilter") instanceof FilterRegistrationBean<?>));
+    }
+
+    @Test
+    void requestsOverTheLimitAreShed() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(1, 1, 1, 0.2, 1.5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit, properties, registry);
+
+        assertTrue(limit.tryAcquire());
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), shed, chain);
+        assertEquals(503, shed.getStatus());
+        assertEquals("3", shed.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(chain.getRequest());
+        assertEquals(1, registry.get("app.limiter.rejected").counter().count());
+
+        limit.release(-1);
+        MockHttpServletResponse served = new MockHttpServletResponse();
+        chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), served, chain);
+        assertEquals(200, served.getStatus());
+        assertTrue(chain.getRequest() != null);
+        // the permit came back once the request finished
+        assertEquals(0, limit.getInFlight());
+    }
+
+    // an async request holds its permit until it completes
+    @Test
+    void asyncRequestsKeepTheirPermitUntilComplete() throws Exception {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(1, 1, 1, 0.2, 1.5);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit, new ConcurrencyLimitProperties(),
+                new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        assertEquals(1, limit.getInFlight());
+        request.getAsyncContext().complete();
+        assertEquals(0, limit.getInFlight());
+    }
+}
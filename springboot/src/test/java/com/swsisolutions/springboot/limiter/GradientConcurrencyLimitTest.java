@@ -0,0 +1,118 @@
+package com.swsisolutions.springboot.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void permitsStopAtTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(3, 1, 10, 0.2, 1.5);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(3, limit.getInFlight());
+        limit.release(-1);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void initialLimitIsClampedToTheBounds() {
+        assertEquals(5, new GradientConcurrencyLimit(1, 5, 10, 0.2, 1.5).getLimit());
+        assertEquals(10, new GradientConcurrencyLimit(50, 5, 10, 0.2, 1.5).getLimit());
+    }
+
+    // fully used permits at baseline latency: the limit grows towards max
+    @Test
+    void steadyLatencyAtFullUseGrowsTheLimit() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 5, 100, 0.5, 1.5);
+        for (int window = 0; window < 3; window++) {
+            runWindow(limit, 10 * MILLI);
+        }
+        assertTrue(limit.getLimit() > 10, "limit " + limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    // latency far above the baseline means requests queue: the limit shrinks, but not below min
+    @Test
+    void risingLatencyShrinksTheLimit() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(40, 5, 100, 0.5, 1.5);
+        runWindow(limit, 10 * MILLI);
+        int before = limit.getLimit();
+        for (int window = 0; window < 8; window++) {
+            runWindow(limit, 200 * MILLI);
+        }
+        assertTrue(limit.getLimit() < before, before + " -> " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 5);
+    }
+
+    // a window where most permits sat unused says nothing about the limit
+    @Test
+    void underusedWindowsLeaveTheLimitAlone() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(40, 5, 100, 0.5, 1.5);
+        for (int window = 0; window < 3; window++) {
+            Thread.sleep(110);
+            for (int i = 0; i < 20; i++) {
+                assertTrue(limit.tryAcquire());
+                limit.release(200 * MILLI);
+            }
+        }
+        assertEquals(40, limit.getLimit());
+    }
+
+    // many threads sampling at once: every permit comes back and the limit stays within its bounds
+    @Test
+    void concurrentReleasesKeepTheCountsConsistent() throws Exception {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 50, 0.2, 1.5);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    int accepted = 0;
+                    long deadline = System.nanoTime() + 400 * MILLI;
+                    for (int i = 0; System.nanoTime() < deadline; i++) {
+                        if (limit.tryAcquire()) {
+                            accepted++;
+                            limit.release((1 + (i + seed) % 20) * MILLI);
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, limit.getInFlight());
+        assertTrue(limit.getLimit() >= 5 && limit.getLimit() <= 50, "limit " + limit.getLimit());
+    }
+
+    // takes every permit, then returns them with the given latency once the window is old enough to close
+    private static void runWindow(GradientConcurrencyLimit limit, long rttNanos) throws InterruptedException {
+        int permits = 0;
+        while (limit.tryAcquire()) {
+            permits++;
+        }
+        Thread.sleep(110);
+        for (int i = 0; i < permits; i++) {
+            limit.release(rttNanos);
+        }
+    }
+}
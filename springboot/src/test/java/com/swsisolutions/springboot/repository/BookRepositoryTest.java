@@ -0,0 +1,71 @@
+package com.swsisolutions.springboot.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.swsisolutions.springboot.dto.BookResponse;
+import com.swsisolutions.springboot.model.Book;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            bookRepository.save(new Book("Book " + i, (i % 5 == 0) ? "Austen" : "Tolkien", LocalDate.of(1900 + i, 1, 1)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void summariesArePagedInIdOrder() {
+        Slice<BookResponse> first = bookRepository.findAllSummaries(PageRequest.of(0, 10, Sort.by("id")));
+        Slice<BookResponse> last = bookRepository.findAllSummaries(PageRequest.of(2, 10, Sort.by("id")));
+
+        assertEquals(10, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals("Book 0", first.getContent().get(0).getTitle());
+        assertEquals(LocalDate.of(1900, 1, 1), first.getContent().get(0).getPublished());
+        assertEquals(5, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+        assertEquals("Book 24", last.getContent().get(4).getTitle());
+    }
+
+    @Test
+    void summariesFilterByAuthor() {
+        Slice<BookResponse> austen = bookRepository.findSummariesByAuthor("Austen", PageRequest.of(0, 10, Sort.by("id")));
+        List<String> titles = austen.getContent().stream().map(BookResponse::getTitle).toList();
+        assertEquals(List.of("Book 0", "Book 5", "Book 10", "Book 15", "Book 20"), titles);
+        assertFalse(austen.hasNext());
+    }
+
+    // the projection selects into DTOs, so nothing is loaded into the persistence context
+    @Test
+    void summariesDoNotManageEntities() {
+        List<BookResponse> summaries = bookRepository.findAllSummaries(PageRequest.of(0, 25, Sort.by("id"))).getContent();
+        assertEquals(25, summaries.size());
+        Book managed = entityManager.getReference(Book.class, summaries.get(0).getId());
+        assertFalse(entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(managed));
+    }
+}
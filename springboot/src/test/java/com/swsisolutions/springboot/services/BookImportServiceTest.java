@@ -0,0 +1,126 @@
+package com.swsisolutions.springboot.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.swsisolutions.springboot.dto.BookImportResult;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.repository.BookRepository;
+import com.swsisolutions.springboot.services.BookImportService.Format;
+
+// Imports run their own chunk transactions, so the test doesn't wrap them in one
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookImportService.class, BookSearchIndex.class, BookImportServiceTest.Config.class})
+@TestPropertySource(properties = {"app.books.import.chunk-size=3", "spring.jpa.properties.hibernate.jdbc.batch_size=2"})
+class BookImportServiceTest {
+
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+
+    @Autowired
+    private BookImportService importService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void importsCsvAcrossChunksAndReportsBadRows() throws IOException {
+        String csv = """
+                title,author,published
+                Dune,Frank Herbert,1965-08-01
+                "Hello, ""World""\",Anon,
+                ,Nobody,2000-01-01
+
+                Emma,Jane Austen,1815-12-23
+                Persuasion,Jane Austen,not-a-date
+                Sanditon,Jane Austen
+                Ulysses,James Joyce,1922-02-02,extra
+                Walden,Henry David Thoreau,1854-08-09
+                """;
+        BookImportResult result = importService.importBooks(input(csv), Format.CSV);
+
+        assertEquals(5, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(
+                "line 4: title is required",
+                "line 7: published is not an ISO date: not-a-date",
+                "line 9: expected title,author,published but got 4 fields"), result.getErrors());
+        assertEquals(5, bookRepository.count());
+
+        Book quoted = bookRepository.findAll().stream()
+                .filter(book -> book.getAuthor().equals("Anon")).findFirst().orElseThrow();
+        assertEquals("Hello, \"World\"", quoted.getTitle());
+        assertNull(quoted.getPublished());
+        // committed rows are searchable straight away
+        assertEquals(2, searchIndex.search("jane austen", 10).length);
+    }
+
+    @Test
+    void importsNdjson() throws IOException {
+        String ndjson = """
+                {"title":"Dune","author":"Frank Herbert","published":"1965-08-01"}
+                {"id":99,"title":"Emma","author":"Jane Austen"}
+                {"title":
+                {"author":"No Title"}
+                """;
+        BookImportResult result = importService.importBooks(input(ndjson), Format.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals("line 4: title is required", result.getErrors().get(1));
+        Book dune = bookRepository.findAll().stream()
+                .filter(book -> book.getTitle().equals("Dune")).findFirst().orElseThrow();
+        assertEquals(LocalDate.of(1965, 8, 1), dune.getPublished());
+        // client ids are ignored
+        assertFalse(bookRepository.existsById(99L));
+    }
+
+    @Test
+    void reportsOnlyTheFirstErrors() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            csv.append(",no title\n");
+        }
+        BookImportResult result = importService.importBooks(input(csv.toString()), Format.CSV);
+        assertEquals(0, result.getImported());
+        assertEquals(50, result.getFailed());
+        assertEquals(20, result.getErrors().size());
+    }
+
+    private static ByteArrayInputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
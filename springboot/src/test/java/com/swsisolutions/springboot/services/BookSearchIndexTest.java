@@ -0,0 +1,120 @@
+package com.swsisolutions.springboot.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.repository.BookRepository;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(mock(BookRepository.class));
+        index.add(book(1, "The Lord of the Rings", "J. R. R. Tolkien"));
+        index.add(book(2, "The Hobbit", "J.R.R. Tolkien"));
+        index.add(book(3, "Lord of the Flies", "William Golding"));
+        index.add(book(4, "Tolstoy's War and Peace", "Leo Tolstoy"));
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertArrayEquals(new long[] {1, 3}, index.search("lord", 10));
+        assertArrayEquals(new long[] {1}, index.search("LORD  tolkien", 10));
+        assertArrayEquals(new long[0], index.search("lord peace", 10));
+        assertArrayEquals(new long[0], index.search("  ", 10));
+    }
+
+    @Test
+    void aTrailingStarMatchesByPrefix() {
+        assertArrayEquals(new long[] {1, 2, 4}, index.search("tol*", 10));
+        assertArrayEquals(new long[] {4}, index.search("tol* war", 10));
+        // only the last token of a word is a prefix: tolstoy's is "tolstoy" and "s"
+        assertArrayEquals(new long[] {4}, index.search("tolstoy's*", 10));
+        assertArrayEquals(new long[0], index.search("tolk", 10));
+    }
+
+    @Test
+    void resultsAreCutAtTheLimit() {
+        assertArrayEquals(new long[] {1, 2}, index.search("the", 2));
+    }
+
+    @Test
+    void replaceAndRemoveDropTheOldTerms() {
+        int terms = index.termCount();
+        Book hobbit = book(2, "The Hobbit", "J.R.R. Tolkien");
+        index.replace(hobbit, book(2, "The Silmarillion", "J.R.R. Tolkien"));
+        assertArrayEquals(new long[0], index.search("hobbit", 10));
+        assertArrayEquals(new long[] {2}, index.search("silmarillion", 10));
+        assertEquals(terms, index.termCount());
+
+        index.remove(book(3, "Lord of the Flies", "William Golding"));
+        assertArrayEquals(new long[] {1}, index.search("lord", 10));
+        assertArrayEquals(new long[0], index.search("golding", 10));
+        // flies, william and golding; lord, of and the are still used by book 1
+        assertEquals(terms - 3, index.termCount());
+    }
+
+    // books arrive out of id order (imports and updates), postings must stay sorted and duplicate-free
+    @Test
+    void matchesAFullScanUnderRandomWrites() {
+        String[] words = {"alpha", "beta", "gamma", "delta", "alphabet", "betamax", "gam"};
+        SplittableRandom random = new SplittableRandom(9);
+        BookSearchIndex scanned = new BookSearchIndex(mock(BookRepository.class));
+        Map<Long, Book> books = new HashMap<>();
+        for (int op = 0; op < 5_000; op++) {
+            long id = 1 + random.nextInt(300);
+            Book current = book(id, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                    words[random.nextInt(words.length)]);
+            Book previous = books.get(id);
+            if (previous == null) {
+                scanned.add(current);
+                books.put(id, current);
+            } else if (random.nextBoolean()) {
+                scanned.replace(previous, current);
+                books.put(id, current);
+            } else {
+                scanned.remove(previous);
+                books.remove(id);
+            }
+        }
+        for (String query : new String[] {"alpha", "alpha*", "gam*", "beta gamma", "alpha* delta", "bet* gam"}) {
+            assertArrayEquals(scan(books, query), scanned.search(query, 1_000), query);
+        }
+    }
+
+    private static long[] scan(Map<Long, Book> books, String query) {
+        List<Long> ids = new ArrayList<>();
+        for (Book book : books.values()) {
+            List<String> tokens = BookSearchIndex.tokenize(book);
+            boolean all = true;
+            for (String word : query.split(" ")) {
+                boolean prefix = word.endsWith("*");
+                String term = prefix ? word.substring(0, word.length() - 1) : word;
+                all &= tokens.stream().anyMatch(token -> prefix ? token.startsWith(term) : token.equals(term));
+            }
+            if (all) {
+                ids.add(book.getId());
+            }
+        }
+        return ids.stream().sorted().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Book book(long id, String title, String author) {
+        Book book = new Book(title, author, null);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,137 @@
+package com.swsisolutions.springboot.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.swsisolutions.springboot.exceptions.ResourceNotFoundException;
+import com.swsisolutions.springboot.model.Book;
+import com.swsisolutions.springboot.repository.BookRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// BookService behind the real caching proxy, with a mocked repository to count what reaches it
+@SpringJUnitConfig
+class BookServiceTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        BookRepository bookRepository() {
+            return mock(BookRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(BookService.BOOKS_CACHE, BookService.BOOK_PAGES_CACHE);
+        }
+
+        @Bean
+        BookService bookService(BookRepository bookRepository) {
+            return new BookService(bookRepository, new BookSearchIndex(bookRepository), new SimpleMeterRegistry());
+        }
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        reset(bookRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book(1L, "Dune")));
+        when(bookRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(book(1L, "Dune"))));
+        when(bookRepository.save(any(Book.class))).thenAnswer(call -> {
+            Book book = call.getArgument(0);
+            if (book.getId() == null) {
+                book.setId(2L);
+            }
+            return book;
+        });
+    }
+
+    @Test
+    void repeatedReadsHitTheRepositoryOnce() {
+        assertEquals("Dune", bookService.findById(1L).getTitle());
+        assertEquals("Dune", bookService.findById(1L).getTitle());
+        bookService.findPage(0, 10);
+        bookService.findPage(0, 10);
+        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, times(1)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void updateRefreshesTheBookAndDropsThePages() {
+        bookService.findById(1L);
+        bookService.findPage(0, 10);
+        bookService.update(1L, book(null, "Dune Messiah"));
+
+        // served from the refreshed entry: the only repository load is the one update made
+        assertEquals("Dune Messiah", bookService.findById(1L).getTitle());
+        verify(bookRepository, times(2)).findById(1L);
+        bookService.findPage(0, 10);
+        verify(bookRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void createCachesTheNewBookAndDropsThePages() {
+        bookService.findPage(0, 10);
+        Book created = bookService.create(book(null, "Emma"));
+        assertEquals("Emma", bookService.findById(created.getId()).getTitle());
+        verify(bookRepository, times(0)).findById(created.getId());
+        bookService.findPage(0, 10);
+        verify(bookRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void deleteEvictsTheBook() {
+        bookService.findById(1L);
+        bookService.delete(1L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> bookService.findById(1L));
+    }
+
+    // a miss is not cached, so the book is found once it exists
+    @Test
+    void notFoundIsNotCached() {
+        when(bookRepository.findById(3L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> bookService.findById(3L));
+        when(bookRepository.findById(3L)).thenReturn(Optional.of(book(3L, "Ulysses")));
+        assertEquals("Ulysses", bookService.findById(3L).getTitle());
+    }
+
+    private static Book book(Long id, String title) {
+        Book book = new Book(title, "Author", LocalDate.of(1965, 8, 1));
+        book.setId(id);
+        book.setVersion(0L);
+        return book;
+    }
+}
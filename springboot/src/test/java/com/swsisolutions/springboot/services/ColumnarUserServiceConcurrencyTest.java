@@ -0,0 +1,12 @@
+package com.swsisolutions.springboot.services;
+
+import com.swsisolutions.springboot.store.ColumnarUserStore;
+import com.swsisolutions.springboot.store.UserStore;
+
+class ColumnarUserServiceConcurrencyTest extends UserServiceConcurrencyTest {
+
+    @Override
+    UserStore newStore() {
+        return new ColumnarUserStore(16);
+    }
+}
@@ -0,0 +1,13 @@
+package com.swsisolutions.springboot.services;
+
+import com.swsisolutions.springboot.store.ColumnarUserStore;
+import com.swsisolutions.springboot.store.UserStore;
+
+class ColumnarUserServiceTest extends UserServiceTest {
+
+    // a small initial capacity so the columns and the id map grow while the tests run
+    @Override
+    UserStore newStore() {
+        return new ColumnarUserStore(16);
+    }
+}
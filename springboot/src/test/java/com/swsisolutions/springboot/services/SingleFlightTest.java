@@ -0,0 +1,134 @@
+package com.swsisolutions.springboot.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 8;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> flight = new SingleFlight<>("test", registry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLoadsOfOneKeyShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.load(1L, () -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> flight.load(1L, () -> {
+                calls.incrementAndGet();
+                return "own load";
+            })));
+        }
+        waitForCoalesced(FOLLOWERS);
+        release.countDown();
+
+        assertEquals("value", leader.get(10, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, registry.get("app.singleflight.loads").tag("name", "test").counter().count());
+    }
+
+    // followers see the leader's own exception, not a wrapper
+    @Test
+    void theLeadersExceptionReachesEveryFollower() throws Exception {
+        IllegalStateException failure = new IllegalStateException("backend down");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> flight.load(1L, () -> "own load")));
+        }
+        waitForCoalesced(FOLLOWERS);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS)).getCause());
+        for (Future<String> follower : followers) {
+            assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS)).getCause());
+        }
+    }
+
+    // nothing is kept once a load finishes, failed or not
+    @Test
+    void finishedLoadsAreNotReused() {
+        assertThrows(IllegalStateException.class, () -> flight.load(1L, () -> {
+            throw new IllegalStateException("first");
+        }));
+        assertEquals("second", flight.load(1L, () -> "second"));
+        assertEquals("third", flight.load(1L, () -> "third"));
+        assertEquals(3, registry.get("app.singleflight.loads").tag("name", "test").counter().count());
+        assertEquals(0, registry.get("app.singleflight.coalesced").tag("name", "test").counter().count());
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> slow = executor.submit(() -> flight.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "one";
+        }));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        assertEquals("two", flight.load(2L, () -> "two"));
+        release.countDown();
+        assertEquals("one", slow.get(10, TimeUnit.SECONDS));
+    }
+
+    private void waitForCoalesced(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get("app.singleflight.coalesced").tag("name", "test").counter().count() < count) {
+            assertTrue(System.nanoTime() < deadline, "followers did not join the flight");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
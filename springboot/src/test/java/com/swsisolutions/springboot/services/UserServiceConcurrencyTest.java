@@ -0,0 +1,134 @@
+package com.swsisolutions.springboot.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.store.ConcurrentMapUserStore;
+import com.swsisolutions.springboot.store.UserStore;
+
+class UserServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int USERS_PER_THREAD = 5_000;
+
+    // ColumnarUserServiceConcurrencyTest runs the same tests against the columnar engine
+    UserStore newStore() {
+        return new ConcurrentMapUserStore();
+    }
+
+    @Test
+    void concurrentCreatesNeverLoseWritesOrReuseIds() throws Exception {
+        UserService userService = new UserService(newStore());
+
+        List<List<Long>> idsPerThread = runConcurrently(() -> {
+            List<Long> ids = new ArrayList<>(USERS_PER_THREAD);
+            for (int i = 0; i < USERS_PER_THREAD; i++) {
+                ids.add(userService.createUser(new User(null, "user" + i, "user" + i + "@example.com", 30)).getId());
+            }
+            return ids;
+        });
+
+        Set<Long> allIds = new HashSet<>();
+        idsPerThread.forEach(allIds::addAll);
+        assertEquals(THREADS * USERS_PER_THREAD, allIds.size());
+        assertEquals(THREADS * USERS_PER_THREAD, userService.getAllUsers().size());
+        for (Long id : allIds) {
+            assertNotNull(userService.getUserById(id));
+        }
+    }
+
+    @Test
+    void concurrentUpdatesAndDeletesStayConsistent() throws Exception {
+        UserService userService = new UserService(newStore());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS * USERS_PER_THREAD; i++) {
+            ids.add(userService.createUser(new User(null, "user" + i, "user" + i + "@example.com", 30)).getId());
+        }
+
+        // Every thread updates the whole id range, but only deletes the ids in its own slice
+        List<List<Long>> deletedPerThread = runConcurrently(new Callable<>() {
+            private final AtomicInteger slices = new AtomicInteger();
+
+            @Override
+            public List<Long> call() {
+                int slice = slices.getAndIncrement();
+                List<Long> deleted = new ArrayList<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    Long id = ids.get(i);
+                    userService.updateUser(id, new User(null, "renamed", "renamed@example.com", 40));
+                    if (i % THREADS == slice && i % 2 == 0) {
+                        assertTrue(userService.deleteUser(id));
+                        deleted.add(id);
+                    }
+                }
+                return deleted;
+            }
+        });
+
+        Set<Long> deleted = new HashSet<>();
+        deletedPerThread.forEach(deleted::addAll);
+        assertEquals(ids.size() - deleted.size(), userService.getAllUsers().size());
+        for (Long id : ids) {
+            User user = userService.getUserById(id);
+            if (deleted.contains(id)) {
+                assertNull(user);
+            } else {
+                assertEquals(id, user.getId());
+            }
+        }
+        // the indexes were maintained inside the same atomic writes, so they agree with the store
+        int survivors = ids.size() - deleted.size();
+        assertEquals(Math.min(survivors, UserService.MAX_PAGE_SIZE),
+                userService.search(new UserQuery("renamed@example.com", null, null, null, null), Integer.MAX_VALUE).size());
+        assertEquals(0, userService.search(new UserQuery(null, null, "user", null, null), 10).size());
+        assertEquals(0, userService.search(new UserQuery(null, null, null, 30, 30), 10).size());
+        int paged = 0;
+        for (String cursor = null; ; ) {
+            var page = userService.getUsers(cursor, UserService.MAX_PAGE_SIZE, UserSort.NAME, false);
+            paged += page.getItems().size();
+            if ((cursor = page.getNextCursor()) == null) {
+                break;
+            }
+        }
+        assertEquals(survivors, paged);
+    }
+
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.swsisolutions.springboot.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.swsisolutions.springboot.dto.UserPage;
+import com.swsisolutions.springboot.exceptions.BadRequestException;
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.store.ConcurrentMapUserStore;
+import com.swsisolutions.springboot.store.UserStore;
+
+class UserServiceTest {
+
+    private static final int USERS = 257;
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(newStore());
+        for (int i = 0; i < USERS; i++) {
+            // few distinct names and ages, so most sort keys tie and only the id tie-breaker orders them
+            userService.createUser(new User(null, "name" + (i % 7), "user" + i + "@example.com", 20 + i % 5));
+        }
+    }
+
+    // ColumnarUserServiceTest runs the same tests against the columnar engine
+    UserStore newStore() {
+        return new ConcurrentMapUserStore();
+    }
+
+    @Test
+    void pagesVisitEveryUserOnceInSortOrder() {
+        for (UserSort sort : UserSort.values()) {
+            for (boolean descending : new boolean[] {false, true}) {
+                for (int limit : new int[] {1, 10, USERS, USERS + 1}) {
+                    List<User> walked = walk(sort, descending, limit);
+                    List<User> expected = new ArrayList<>(userService.getAllUsers());
+                    Comparator<User> order = order(sort);
+                    expected.sort(descending ? order.reversed() : order);
+                    assertEquals(ids(expected), ids(walked), sort + " desc=" + descending + " limit=" + limit);
+                }
+            }
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        UserPage page = userService.getUsers(null, USERS, UserSort.ID, false);
+        assertEquals(USERS, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertNotNull(userService.getUsers(null, USERS - 1, UserSort.ID, false).getNextCursor());
+    }
+
+    // keyset cursors point at a key, not an offset: writes between pages neither repeat nor skip the users after it
+    @Test
+    void cursorSurvivesWritesBetweenPages() {
+        UserPage first = userService.getUsers(null, 50, UserSort.AGE, false);
+        User lastSeen = first.getItems().get(49);
+
+        // delete the user the cursor points at, and add users before and after it
+        userService.deleteUser(lastSeen.getId());
+        User before = userService.createUser(new User(null, "early", "early@example.com", 1));
+        User after = userService.createUser(new User(null, "late", "late@example.com", 99));
+
+        List<User> rest = new ArrayList<>();
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            UserPage page = userService.getUsers(cursor, 50, UserSort.AGE, false);
+            rest.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        }
+        List<Long> restIds = ids(rest);
+        assertEquals(USERS - 50 + 1, rest.size());
+        assertEquals(after.getId(), restIds.get(restIds.size() - 1));
+        assertEquals(-1, restIds.indexOf(before.getId()));
+        for (User seen : first.getItems()) {
+            assertEquals(-1, restIds.indexOf(seen.getId()));
+        }
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        String nameCursor = userService.getUsers(null, 5, UserSort.NAME, false).getNextCursor();
+        assertThrows(BadRequestException.class, () -> userService.getUsers(nameCursor, 5, UserSort.AGE, false));
+        assertThrows(BadRequestException.class, () -> userService.getUsers("%%%", 5, UserSort.ID, false));
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertEquals(1, userService.getUsers(null, 0, UserSort.ID, false).getItems().size());
+        assertEquals(1, userService.getUsers(null, -5, UserSort.ID, false).getItems().size());
+    }
+
+    @Test
+    void emailIndexFollowsUpdatesAndDeletes() {
+        User user = userService.createUser(new User(null, "Ada", "Ada@Example.com", 36));
+        assertEquals(List.of(user.getId()), ids(search("  ada@example.COM ", null, null, null, null)));
+
+        userService.updateUser(user.getId(), new User(null, "Ada", "ada.l@example.com", 36));
+        assertEquals(List.of(), search("ada@example.com", null, null, null, null));
+        assertEquals(List.of(user.getId()), ids(search("ada.l@example.com", null, null, null, null)));
+
+        userService.deleteUser(user.getId());
+        assertEquals(List.of(), search("ada.l@example.com", null, null, null, null));
+    }
+
+    @Test
+    void sharedEmailKeepsTheOtherUserIndexed() {
+        User first = userService.createUser(new User(null, "One", "shared@example.com", 30));
+        User second = userService.createUser(new User(null, "Two", "shared@example.com", 31));
+        assertEquals(2, search("shared@example.com", null, null, null, null).size());
+
+        userService.deleteUser(first.getId());
+        assertEquals(List.of(second.getId()), ids(search("shared@example.com", null, null, null, null)));
+    }
+
+    @Test
+    void nameAndAgeIndexesFollowUpdatesAndDeletes() {
+        User user = userService.createUser(new User(null, "Zed", "zed@example.com", 70));
+        assertEquals(List.of(user.getId()), ids(search(null, "Zed", null, null, null)));
+        assertEquals(List.of(user.getId()), ids(search(null, null, "Ze", 60, 80)));
+
+        userService.updateUser(user.getId(), new User(null, "Zora", "zed@example.com", 71));
+        assertEquals(List.of(), search(null, "Zed", null, null, null));
+        assertEquals(List.of(user.getId()), ids(search(null, null, "Zo", null, null)));
+        assertEquals(List.of(), search(null, null, null, 70, 70));
+        assertEquals(List.of(user.getId()), ids(search(null, null, null, 71, 71)));
+
+        userService.deleteUser(user.getId());
+        assertEquals(List.of(), search(null, null, "Z", null, null));
+        assertEquals(List.of(), search(null, null, null, 60, 80));
+    }
+
+    // every index path must return exactly what a full scan with the same criteria returns
+    @Test
+    void searchMatchesAFullScan() {
+        for (int i = 0; i < USERS; i += 3) {
+            userService.updateUser((long) i + 1, new User(null, "renamed" + (i % 4), "r" + i + "@example.com", 20 + i % 9));
+        }
+        for (int i = 1; i < USERS; i += 5) {
+            userService.deleteUser((long) i + 1);
+        }
+        List<UserQuery> queries = List.of(
+                new UserQuery(null, "name3", null, null, null),
+                new UserQuery(null, null, "renamed", 22, 25),
+                new UserQuery(null, null, null, 21, 23),
+                new UserQuery("r9@example.com", null, null, null, null),
+                new UserQuery("user10@example.com", null, null, 20, 30));
+        for (UserQuery query : queries) {
+            List<Long> expected = new ArrayList<>();
+            for (User user : userService.getAllUsers()) {
+                if (query.matches(user)) {
+                    expected.add(user.getId());
+                }
+            }
+            List<Long> found = ids(userService.search(query, UserService.MAX_PAGE_SIZE));
+            expected.sort(null);
+            found.sort(null);
+            assertEquals(expected, found, query.toString());
+        }
+    }
+
+    @Test
+    void invalidSearchesAreRejected() {
+        assertThrows(BadRequestException.class, () -> search(null, null, null, null, null));
+        assertThrows(BadRequestException.class, () -> search(null, null, null, 40, 30));
+    }
+
+    private List<User> search(String email, String name, String namePrefix, Integer minAge, Integer maxAge) {
+        return userService.search(new UserQuery(email, name, namePrefix, minAge, maxAge), UserService.MAX_PAGE_SIZE);
+    }
+
+    private List<User> walk(UserSort sort, boolean descending, int limit) {
+        List<User> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = userService.getUsers(cursor, limit, sort, descending);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return walked;
+    }
+
+    private static Comparator<User> order(UserSort sort) {
+        return switch (sort) {
+            case ID -> Comparator.comparingLong(User::getId);
+            case NAME -> Comparator.comparing(User::getName).thenComparingLong(User::getId);
+            case AGE -> Comparator.comparingInt(User::getAge).thenComparingLong(User::getId);
+        };
+    }
+
+    private static List<Long> ids(List<User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        users.forEach(user -> ids.add(user.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,111 @@
+package com.swsisolutions.springboot.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.swsisolutions.springboot.model.User;
+
+// Drives the columnar engine and the map engine with the same writes and expects the same answers from both
+class ColumnarUserStoreTest {
+
+    @Test
+    void behavesLikeTheMapEngine() {
+        UserStore expected = new ConcurrentMapUserStore();
+        UserStore columnar = new ColumnarUserStore(16);
+        List<String> expectedChanges = new ArrayList<>();
+        List<String> columnarChanges = new ArrayList<>();
+        expected.setListener((previous, current) -> expectedChanges.add(describe(previous) + " -> " + describe(current)));
+        columnar.setListener((previous, current) -> columnarChanges.add(describe(previous) + " -> " + describe(current)));
+
+        SplittableRandom random = new SplittableRandom(11);
+        for (int op = 0; op < 100_000; op++) {
+            long id = 1 + random.nextInt(3_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    User user = user(id, random);
+                    assertSame(expected.put(user), columnar.put(copy(user)), op);
+                }
+                case 1 -> {
+                    User user = user(id, random);
+                    assertSame(expected.replace(id, user), columnar.replace(id, copy(user)), op);
+                }
+                case 2 -> assertSame(expected.remove(id), columnar.remove(id), op);
+                default -> assertSame(expected.get(id), columnar.get(id), op);
+            }
+        }
+        assertEquals(expectedChanges, columnarChanges);
+        assertEquals(expected.size(), columnar.size());
+        assertEquals(expected.highestId(), columnar.highestId());
+        assertEquals(contents(expected), contents(columnar));
+    }
+
+    @Test
+    void batchPutMatchesSinglePuts() {
+        UserStore columnar = new ColumnarUserStore(16);
+        List<User> batch = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            batch.add(new User(id, "name" + id % 3, null, (int) id));
+        }
+        columnar.putAll(batch);
+        columnar.putAll(batch.subList(0, 10));
+        assertEquals(1_000, columnar.size());
+        assertEquals(2, columnar.get(1).getVersion());
+        assertEquals(1, columnar.get(11).getVersion());
+        assertEquals("name1", columnar.get(1_000).getName());
+    }
+
+    @Test
+    void iteratorSkipsUsersRemovedBeforeItsBatch() {
+        UserStore columnar = new ColumnarUserStore(16);
+        for (long id = 1; id <= 2_000; id++) {
+            columnar.put(new User(id, "n", "e", 1));
+        }
+        var users = columnar.iterator();
+        users.next();
+        for (long id = 1_000; id <= 2_000; id++) {
+            columnar.remove(id);
+        }
+        int seen = 1;
+        while (users.hasNext()) {
+            assertFalse(users.next().getId() >= 1_000, "a removed user was returned after its slot was freed");
+            seen++;
+        }
+        // the first batch of 256 was materialized before the removals
+        assertEquals(999, seen);
+    }
+
+    // strings come from a small set so the pool dedupes and releases refs that other users still hold
+    private static User user(long id, SplittableRandom random) {
+        String name = random.nextInt(10) == 0 ? null : "name" + random.nextInt(50);
+        String email = random.nextInt(10) == 0 ? null : "user" + random.nextInt(500) + "@example.com";
+        return new User(id, name, email, random.nextInt(100));
+    }
+
+    // each engine stamps the version on the User it is given, so they must not share an instance
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getAge());
+    }
+
+    private static void assertSame(User expected, User actual, int op) {
+        assertEquals(describe(expected), describe(actual), "operation " + op);
+    }
+
+    private static List<String> contents(UserStore store) {
+        List<User> users = new ArrayList<>();
+        store.iterator().forEachRemaining(users::add);
+        users.sort(Comparator.comparing(User::getId));
+        return users.stream().map(ColumnarUserStoreTest::describe).toList();
+    }
+
+    private static String describe(User user) {
+        return user == null ? "null"
+                : user.getId() + "/" + user.getName() + "/" + user.getEmail() + "/" + user.getAge() + "/v" + user.getVersion();
+    }
+}
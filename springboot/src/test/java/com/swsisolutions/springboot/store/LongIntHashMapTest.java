@@ -0,0 +1,114 @@
+package com.swsisolutions.springboot.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+
+    // a new map with expectedSize 1 has 16 cells
+    private static final int MASK = 15;
+
+    @Test
+    void removeInsideAChainThatWrapsAroundKeepsTheRestReachable() {
+        // five keys that all hash to the last cell: the chain runs 15, 0, 1, 2, 3
+        List<Long> chain = keysWithHome(MASK, 5);
+        for (int victim = 0; victim < chain.size(); victim++) {
+            LongIntHashMap map = new LongIntHashMap(1);
+            for (int i = 0; i < chain.size(); i++) {
+                map.put(chain.get(i), i);
+            }
+            assertEquals(victim, map.remove(chain.get(victim)));
+            assertEquals(-1, map.get(chain.get(victim)));
+            assertEquals(-1, map.remove(chain.get(victim)));
+            for (int i = 0; i < chain.size(); i++) {
+                if (i != victim) {
+                    assertEquals(i, map.get(chain.get(i)), "key " + i + " after removing " + victim);
+                }
+            }
+            // reinsert takes the free cell at the end of the chain
+            map.put(chain.get(victim), 100);
+            assertEquals(100, map.get(chain.get(victim)));
+            assertEquals(chain.size(), map.size());
+        }
+    }
+
+    @Test
+    void removeShiftsOnlyEntriesWhoseHomeIsBeforeTheHole() {
+        // two chains meeting across the wraparound: homes 14, 14, 15, 0, 0 fill cells 14, 15, 0, 1, 2
+        List<Long> keys = new ArrayList<>(keysWithHome(14, 2));
+        keys.addAll(keysWithHome(15, 1));
+        keys.addAll(keysWithHome(0, 2));
+        for (Long removed : keys) {
+            LongIntHashMap map = new LongIntHashMap(1);
+            for (int i = 0; i < keys.size(); i++) {
+                map.put(keys.get(i), i);
+            }
+            map.remove(removed);
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(keys.get(i).equals(removed) ? -1 : i, map.get(keys.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void rehashKeepsEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(i * 7919L, i);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(i, map.get(i * 7919L));
+        }
+        assertEquals(-1, map.get(3L));
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomChurn() {
+        SplittableRandom random = new SplittableRandom(5);
+        LongIntHashMap map = new LongIntHashMap(1);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            // a small key space keeps chains long and removals frequent
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, -1).intValue(), map.remove(key));
+                expected.remove(key);
+            } else {
+                map.put(key, op);
+                expected.put(key, op);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveKeys() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1L, 1));
+    }
+
+    // the same Fibonacci hash as LongIntHashMap.index
+    private static List<Long> keysWithHome(int home, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < count; key++) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & MASK) == home) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,243 @@
+package com.swsisolutions.springboot.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.swsisolutions.springboot.model.User;
+import com.swsisolutions.springboot.store.UserPersistenceProperties.SyncMode;
+
+class PersistentUserStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheSnapshotPlusTheLogTail() throws Exception {
+        List<String> expected;
+        try (PersistentUserStore store = open()) {
+            for (long id = 1; id <= 500; id++) {
+                store.put(user(id, 1));
+            }
+            store.snapshot();
+            // the tail updates, deletes and adds users after the snapshot
+            for (long id = 1; id <= 500; id += 2) {
+                store.replace(id, user(id, 2));
+            }
+            for (long id = 2; id <= 100; id += 2) {
+                store.remove(id);
+            }
+            for (long id = 501; id <= 600; id++) {
+                store.put(user(id, 3));
+            }
+            store.remove(600);
+            expected = contents(store);
+        }
+        assertEquals(1, snapshotCount());
+
+        try (PersistentUserStore recovered = open()) {
+            assertEquals(expected, contents(recovered));
+            // the deleted highest id is not handed out again
+            assertEquals(600, recovered.highestId());
+        }
+    }
+
+    @Test
+    void aTornLastRecordIsDroppedAndTheLogContinuesAfterIt() throws Exception {
+        try (PersistentUserStore store = open()) {
+            for (long id = 1; id <= 10; id++) {
+                store.put(user(id, 1));
+            }
+        }
+        tearLastRecord();
+
+        try (PersistentUserStore recovered = open()) {
+            assertEquals(9, recovered.size());
+            assertNull(recovered.get(10));
+            recovered.put(user(11, 1));
+        }
+        // the damaged segment is kept, and the writes after it went to a new one
+        try (PersistentUserStore recovered = open()) {
+            assertEquals(10, recovered.size());
+            assertEquals("user11", recovered.get(11).getName());
+        }
+    }
+
+    // A write is logged inside the delegate's atomic step, before the new value is visible. A snapshot taken in
+    // between must not delete the segment holding that record while the store still shows the old value.
+    @Test
+    void snapshotWaitsForAWriteBetweenLoggingAndApplying() throws Exception {
+        PausingStore delegate = new PausingStore();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (PersistentUserStore store = open(delegate)) {
+            store.put(user(1, 1));
+            delegate.pause = true;
+            Future<?> write = executor.submit(() -> store.put(user(1, 2)));
+            assertTrue(delegate.logged.await(10, TimeUnit.SECONDS));
+            Future<?> snapshot = executor.submit(store::snapshot);
+            try {
+                snapshot.get(500, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException expected) {
+                // blocked behind the paused write
+            }
+            delegate.release.countDown();
+            write.get(10, TimeUnit.SECONDS);
+            snapshot.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (PersistentUserStore recovered = open()) {
+            assertEquals(2, recovered.get(1).getAge());
+        }
+    }
+
+    // every write that returned must survive, whichever segments the snapshots deleted in the meantime
+    @Test
+    void snapshotsDuringConcurrentWritesLoseNothing() throws Exception {
+        int writers = 4;
+        int writesPerThread = 3_000;
+        Map<Long, User> confirmed = new ConcurrentHashMap<>();
+        try (PersistentUserStore store = open()) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < writers; t++) {
+                    long firstId = 1 + t * 100L;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < writesPerThread; i++) {
+                            // each thread owns 100 ids, so the last confirmed write per id is known
+                            long id = firstId + i % 100;
+                            if (i % 7 == 6) {
+                                store.remove(id);
+                                confirmed.remove(id);
+                            } else {
+                                User user = user(id, i);
+                                store.put(user);
+                                confirmed.put(id, user(id, i));
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                Future<?> snapshots = executor.submit(() -> {
+                    while (writing.get()) {
+                        store.snapshot();
+                    }
+                    return null;
+                });
+                for (Future<?> future : futures) {
+                    future.get(120, TimeUnit.SECONDS);
+                }
+                writing.set(false);
+                snapshots.get(120, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (PersistentUserStore recovered = open()) {
+            List<User> expected = new ArrayList<>(confirmed.values());
+            expected.sort(Comparator.comparing(User::getId));
+            assertEquals(expected.stream().map(PersistentUserStoreTest::describe).toList(), contents(recovered));
+        }
+    }
+
+    private PersistentUserStore open() {
+        return open(new ConcurrentMapUserStore());
+    }
+
+    private PersistentUserStore open(UserStore delegate) {
+        UserPersistenceProperties properties = new UserPersistenceProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSync(SyncMode.GROUP);
+        // small segments, so the log also rotates on its own between snapshots
+        properties.setSegmentSize(DataSize.ofKilobytes(16));
+        properties.setSnapshotInterval(Duration.ZERO);
+        return new PersistentUserStore(delegate, properties);
+    }
+
+    // Flips a payload byte of the last record in the newest segment, as a crash in the middle of a write would
+    private void tearLastRecord() throws IOException {
+        List<Long> segments = UserWriteAheadLog.segments(directory);
+        Path segment = UserWriteAheadLog.segmentPath(directory, segments.get(segments.size() - 1));
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int offset = 0;
+        int last = -1;
+        while (offset + 8 <= bytes.length && buffer.getInt(offset) > 0) {
+            last = offset;
+            offset += 8 + buffer.getInt(offset);
+        }
+        assertTrue(last >= 0, "no records in " + segment);
+        bytes[last + 8 + buffer.getInt(last) - 1] ^= 0x7f;
+        Files.write(segment, bytes);
+    }
+
+    private long snapshotCount() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".dat")).count();
+        }
+    }
+
+    // Once paused, holds the next write inside the atomic step, right after the log record was appended
+    private static final class PausingStore extends ConcurrentMapUserStore {
+        final CountDownLatch logged = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean pause;
+
+        @Override
+        public void setListener(ChangeListener listener) {
+            super.setListener((previous, current) -> {
+                listener.changed(previous, current);
+                if (pause) {
+                    pause = false;
+                    logged.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+    }
+
+    private static User user(long id, int age) {
+        return new User(id, "user" + id, "user" + id + "@example.com", age);
+    }
+
+    private static List<String> contents(UserStore store) {
+        List<User> users = new ArrayList<>();
+        store.iterator().forEachRemaining(users::add);
+        users.sort(Comparator.comparing(User::getId));
+        return users.stream().map(PersistentUserStoreTest::describe).toList();
+    }
+
+    private static String describe(User user) {
+        return user.getId() + "/" + user.getName() + "/" + user.getEmail() + "/" + user.getAge();
+    }
+}
@@ -0,0 +1,77 @@
+package com.swsisolutions.springboot.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StringPoolTest {
+
+    @Test
+    void equalStringsShareARefUntilTheLastRelease() {
+        StringPool pool = new StringPool();
+        int first = pool.intern("Grace");
+        int second = pool.intern(new String("Grace"));
+        assertEquals(first, second);
+        assertEquals(1, pool.distinctStrings());
+
+        pool.release(first);
+        assertEquals("Grace", pool.get(second));
+        assertEquals(1, pool.distinctStrings());
+
+        pool.release(second);
+        assertEquals(0, pool.distinctStrings());
+        // the freed ref is handed out again for the next new string
+        assertEquals(first, pool.intern("Hopper"));
+        assertEquals("Hopper", pool.get(first));
+    }
+
+    @Test
+    void nullAndMultiByteStringsRoundTrip() {
+        StringPool pool = new StringPool();
+        assertEquals(StringPool.NULL_REF, pool.intern(null));
+        assertNull(pool.get(StringPool.NULL_REF));
+        pool.release(StringPool.NULL_REF);
+        int ref = pool.intern("Zoë – 東京");
+        assertEquals("Zoë – 東京", pool.get(ref));
+    }
+
+    // releasing most strings triggers compaction; the survivors keep their refs and contents and still dedupe
+    @Test
+    void compactionKeepsLiveRefs() {
+        StringPool pool = new StringPool();
+        int count = 60_000;
+        int[] refs = new int[count];
+        for (int i = 0; i < count; i++) {
+            refs[i] = pool.intern(value(i));
+        }
+        // a second reference on every tenth string, released later
+        for (int i = 0; i < count; i += 10) {
+            assertEquals(refs[i], pool.intern(value(i)));
+        }
+        long before = pool.footprintBytes();
+        for (int i = 0; i < count; i++) {
+            pool.release(refs[i]);
+        }
+        assertTrue(pool.footprintBytes() < before, "arena was not compacted");
+        assertEquals(count / 10, pool.distinctStrings());
+
+        for (int i = 0; i < count; i += 10) {
+            assertEquals(value(i), pool.get(refs[i]));
+            assertEquals(refs[i], pool.intern(value(i)));
+        }
+        // new strings after compaction don't overwrite the moved ones
+        int fresh = pool.intern("fresh after compaction");
+        assertNotEquals(refs[0], fresh);
+        for (int i = 0; i < count; i += 10) {
+            assertEquals(value(i), pool.get(refs[i]));
+        }
+        assertEquals("fresh after compaction", pool.get(fresh));
+    }
+
+    private static String value(int i) {
+        return "someone.with.a.long.address." + i + "@example.com";
+    }
+}
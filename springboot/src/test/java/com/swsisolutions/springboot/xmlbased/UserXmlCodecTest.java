@@ -0,0 +1,105 @@
+package com.swsisolutions.springboot.xmlbased;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.swsisolutions.springboot.model.User;
+
+class UserXmlCodecTest {
+
+    private final UserXmlCodec codec = new UserXmlCodec();
+
+    @Test
+    void writtenDocumentsReadBack() throws Exception {
+        List<User> users = List.of(
+                new User(1L, "Ada <Lovelace> & co", "ada@example.com", 36),
+                new User(2L, "Zoë 東京", null, 0));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, users.iterator());
+
+        List<User> read = readAll(out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, read.size());
+        assertEquals("Ada <Lovelace> & co", read.get(0).getName());
+        assertEquals("ada@example.com", read.get(0).getEmail());
+        assertEquals(36, read.get(0).getAge());
+        assertEquals("Zoë 東京", read.get(1).getName());
+        assertNull(read.get(1).getEmail());
+        // ids are assigned on import, not taken from the document
+        assertNull(read.get(0).getId());
+    }
+
+    @Test
+    void aBareUserIsABatchOfOneAndUnknownElementsAreSkipped() throws Exception {
+        List<User> read = readAll("<User><name>Ada</name><nickname><first>A</first></nickname><age>36</age></User>");
+        assertEquals(1, read.size());
+        assertEquals("Ada", read.get(0).getName());
+        assertEquals(36, read.get(0).getAge());
+    }
+
+    // a bad value rejects only its own <User>; the reader carries on with the next one
+    @Test
+    void aBadUserIsRejectedAndReadingContinues() throws Exception {
+        String xml = "<Users><User><name>A</name><age>x</age></User><User><name>B</name><age>2</age></User></Users>";
+        try (UserXmlCodec.UserReader reader = codec.reader(input(xml))) {
+            IllegalArgumentException rejected = assertThrows(IllegalArgumentException.class, reader::next);
+            assertEquals("age is not a number: x", rejected.getMessage());
+            assertEquals("B", reader.next().getName());
+            assertNull(reader.next());
+            assertEquals(2, reader.count());
+        }
+    }
+
+    @Test
+    void malformedXmlFails() {
+        assertThrows(XMLStreamException.class, () -> readAll("<Users><User><name>A</User></Users>"));
+    }
+
+    // an external entity must never be resolved, whatever the parser does with the DOCTYPE
+    @Test
+    void externalEntitiesAreNotResolved(@TempDir Path directory) throws Exception {
+        Path secret = Files.writeString(directory.resolve("secret.txt"), "top-secret");
+        String xml = "<?xml version=\"1.0\"?>"
+                + "<!DOCTYPE Users [<!ENTITY xxe SYSTEM \"" + secret.toUri() + "\">]>"
+                + "<Users><User><name>&xxe;</name><age>1</age></User></Users>";
+        assertThrows(XMLStreamException.class, () -> readAll(xml));
+    }
+
+    // "billion laughs": nested internal entities must not be expanded either
+    @Test
+    void internalEntitiesAreNotExpanded() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?><!DOCTYPE Users [<!ENTITY e0 \"lol\">");
+        for (int i = 1; i < 10; i++) {
+            xml.append("<!ENTITY e").append(i).append(" \"").append(("&e" + (i - 1) + ";").repeat(10)).append("\">");
+        }
+        xml.append("]><Users><User><name>&e9;</name><age>1</age></User></Users>");
+        assertThrows(XMLStreamException.class, () -> readAll(xml.toString()));
+    }
+
+    private List<User> readAll(String xml) throws XMLStreamException {
+        List<User> users = new ArrayList<>();
+        try (UserXmlCodec.UserReader reader = codec.reader(input(xml))) {
+            for (User user = reader.next(); user != null; user = reader.next()) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    private static ByteArrayInputStream input(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}